@@ -0,0 +1,139 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la lectura de una planilla generada con OpenCSV y la normalización
+ * de celdas de texto que usaba la importación, contra {@link GradebookCsvTokenizer}.
+ * Ambos caminos limpian el nombre del estudiante igual que la importación.
+ *
+ * <p>Se ejecuta con {@code mvn -Pjmh test-compile exec:exec}; agregar
+ * {@code -Djmh.args="CsvParsingBenchmark -prof gc"} para ver las asignaciones por fila.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+	@Param({"1000", "10000"})
+	private int students;
+
+	@Param({"50"})
+	private int exercises;
+
+	private byte[] sheet;
+
+	@Setup
+	public void generateSheet() {
+		StringBuilder csv = new StringBuilder("Student Name");
+		for (int exercise = 0; exercise < exercises; exercise++) {
+			csv.append(";Ejercicio ").append(exercise + 1);
+		}
+		csv.append(";Total Grade\n");
+		for (int student = 0; student < students; student++) {
+			csv.append("Estudiante ").append(student + 1);
+			for (int exercise = 0; exercise < exercises; exercise++) {
+				int cell = (student * 31 + exercise) % 110;
+				// Algunas celdas sin entregar o pendientes, como en las planillas reales
+				csv.append(';').append(cell > 100 ? "Not Submitted" : cell == 100 ? "Pendiente" : cell);
+			}
+			csv.append(";NA\n");
+		}
+		sheet = csv.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public void openCsv(Blackhole blackhole) throws IOException, CsvValidationException {
+		try (CSVReader reader = new CSVReaderBuilder(
+				new InputStreamReader(new ByteArrayInputStream(sheet), StandardCharsets.UTF_8))
+				.withCSVParser(new CSVParserBuilder().withSeparator(';').withQuoteChar('"').build())
+				.build()) {
+			blackhole.consume(reader.readNext());
+			String[] row;
+			while ((row = reader.readNext()) != null) {
+				blackhole.consume(cleanName(row[0]));
+				blackhole.consume(parseCells(row));
+			}
+		}
+	}
+
+	@Benchmark
+	public void tokenizer(Blackhole blackhole) throws IOException {
+		try (GradebookCsvTokenizer tokenizer = new GradebookCsvTokenizer(
+				new InputStreamReader(new ByteArrayInputStream(sheet), StandardCharsets.UTF_8), ';')) {
+			blackhole.consume(tokenizer.readHeader());
+			GradebookCsvTokenizer.Row row;
+			while ((row = tokenizer.nextRow()) != null) {
+				blackhole.consume(cleanName(row.name()));
+				blackhole.consume(row.grades());
+			}
+		}
+	}
+
+	// Limpieza del nombre de CsvProcessingService.createStudentData, común a ambos caminos
+	private static String cleanName(String name) {
+		return name.trim()
+				.replaceAll("^\"|\"$", "")
+				.replaceAll("\\s+", " ")
+				.trim();
+	}
+
+	// Clasificación de celdas de texto anterior al tokenizador
+	private static List<ParsedGrade> parseCells(String[] row) {
+		List<ParsedGrade> grades = new ArrayList<>();
+		for (int i = 1; i < row.length; i++) {
+			String grade = row[i] != null ? row[i].trim() : "";
+			grade = grade.replaceAll("^\"|\"$", "");
+			if (!grade.equalsIgnoreCase("Total Grade")
+					&& !grade.equalsIgnoreCase("\"Total Grade\"")
+					&& !grade.equalsIgnoreCase("NA")) {
+				grades.add(parseGrade(grade));
+			}
+		}
+		return grades;
+	}
+
+	private static ParsedGrade parseGrade(String gradeValue) {
+		if (gradeValue == null || gradeValue.trim().isEmpty()) {
+			return ParsedGrade.NOT_SUBMITTED;
+		}
+		String trimmedValue = gradeValue.trim();
+		if (trimmedValue.equalsIgnoreCase("Not Submitted")) {
+			return ParsedGrade.NOT_SUBMITTED;
+		}
+		try {
+			int score = Integer.parseInt(trimmedValue);
+			GradeStatus status = score >= ParsedGrade.PASSING_SCORE ? GradeStatus.CORRECT : GradeStatus.INCORRECT;
+			return new ParsedGrade(status, score);
+		} catch (NumberFormatException e) {
+			return ParsedGrade.PENDING;
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.CSV;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CsvUploadJobResponse {
+    private String jobId;
+    private String fileName;
+    private String stage;
+    private String stageDescription;
+    private int rowsProcessed;
+    private List<String> errors;
+    private CsvUploadResponse result;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+}
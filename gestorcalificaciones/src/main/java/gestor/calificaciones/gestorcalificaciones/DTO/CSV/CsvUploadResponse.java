@@ -13,10 +13,16 @@ import java.util.List;
 @AllArgsConstructor
 public class CsvUploadResponse {
     private String message;
+    private String fileName;
     private String courseId;
     private String courseName;
     private int totalStudents;
     private int totalExercises;
+    private int insertedGrades;
+    private int updatedGrades;
+    private int unchangedGrades;
     private List<String> errors;
     private boolean success;
+    // true si el archivo es idéntico a la última importación del curso y no se reimportó
+    private boolean duplicate;
 }
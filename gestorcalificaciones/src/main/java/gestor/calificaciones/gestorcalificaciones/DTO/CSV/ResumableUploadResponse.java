@@ -0,0 +1,22 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.CSV;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumableUploadResponse {
+    private String uploadId;
+    private String fileName;
+    private long totalSize;
+    private long receivedBytes;
+    private boolean complete;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
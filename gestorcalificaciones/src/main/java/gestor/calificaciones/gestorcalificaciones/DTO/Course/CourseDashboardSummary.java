@@ -0,0 +1,26 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen compacto de un curso para el panel del profesor. Si el resumen no se
+ * pudo calcular, {@code error} describe la causa y los conteos quedan en cero.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseDashboardSummary {
+    private String courseId;
+    private String courseName;
+    private String courseCode;
+    private int totalStudents;
+    private int totalExercises;
+    private double averageScore;
+    private double averageCompletion;
+    private int atRiskStudents;
+    private String error;
+}
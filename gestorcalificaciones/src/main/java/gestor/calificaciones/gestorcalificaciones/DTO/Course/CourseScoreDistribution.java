@@ -0,0 +1,15 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseScoreDistribution {
+    private ScoreDistribution course;
+    private List<ExerciseScoreDistribution> exercises;
+}
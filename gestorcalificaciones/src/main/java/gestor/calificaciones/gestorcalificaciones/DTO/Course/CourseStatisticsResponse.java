@@ -23,5 +23,6 @@ public class CourseStatisticsResponse {
     private double averageScore;
     private List<ExerciseStatistics> exerciseStatistics;
     private List<StudentPerformance> studentPerformance;
+    private CourseScoreDistribution distribution;
 }
 
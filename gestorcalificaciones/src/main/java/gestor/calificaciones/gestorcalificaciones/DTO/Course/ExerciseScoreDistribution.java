@@ -0,0 +1,13 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExerciseScoreDistribution {
+    private String exerciseName;
+    private ScoreDistribution distribution;
+}
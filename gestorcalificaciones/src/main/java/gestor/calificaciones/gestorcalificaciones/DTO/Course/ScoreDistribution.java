@@ -0,0 +1,23 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Distribución de los puntajes no nulos: mínimo, máximo, cuartiles y el
+ * histograma de 101 posiciones (una por puntaje de 0 a 100; los puntajes
+ * fuera de rango se cuentan en el extremo más cercano).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreDistribution {
+    private int scoredCount;
+    private Integer minScore;
+    private Integer maxScore;
+    private double percentile25;
+    private double median;
+    private double percentile75;
+    private int[] histogram;
+}
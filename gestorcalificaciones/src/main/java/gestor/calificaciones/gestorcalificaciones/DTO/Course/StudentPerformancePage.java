@@ -0,0 +1,25 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de rendimiento por estudiante. {@code nextCursor} se envía como
+ * {@code cursor} para obtener la página siguiente; es nulo en la última página.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentPerformancePage {
+    private String courseId;
+    private String sort;
+    private String direction;
+    private int totalExercises;
+    private List<StudentPerformance> students;
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package gestor.calificaciones.gestorcalificaciones.DTO.Course;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherDashboardResponse {
+    private int totalCourses;
+    private int totalStudents;
+    private int atRiskStudents;
+    private double atRiskMaxAverage;
+    private double atRiskMinCompletion;
+    private List<CourseDashboardSummary> courses;
+}
@@ -0,0 +1,32 @@
+package gestor.calificaciones.gestorcalificaciones.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de hilos que normaliza en paralelo los bloques de filas del CSV
+ * (limpieza de nombres y clasificación de calificaciones) mientras el hilo de
+ * la transacción escribe en la base de datos.
+ */
+@Configuration
+public class CsvImportPipelineConfig {
+
+    @Bean(name = "csvNormalizationExecutor")
+    public ExecutorService csvNormalizationExecutor(
+            @Value("${csv.import.pipeline.normalization-threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "csv-normalize-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+}
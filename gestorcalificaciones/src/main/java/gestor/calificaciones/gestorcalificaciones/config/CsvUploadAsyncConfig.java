@@ -0,0 +1,52 @@
+package gestor.calificaciones.gestorcalificaciones.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Pools acotados de workers que procesan las cargas de CSV asíncronas y las
+ * entradas de las cargas ZIP.
+ *
+ * <p>Cada worker ocupa una conexión del pool de Hikari mientras importa, por lo
+ * que el número de workers debe quedar por debajo de
+ * {@code spring.datasource.hikari.maximum-pool-size}.</p>
+ */
+@Configuration
+public class CsvUploadAsyncConfig {
+
+    @Bean(name = "csvUploadExecutor")
+    public ThreadPoolTaskExecutor csvUploadExecutor(
+            @Value("${csv.upload.async.workers:2}") int workers,
+            @Value("${csv.upload.async.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("csv-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+
+    /**
+     * Pool para las entradas de una carga ZIP. Con paralelismo 0 se usan las
+     * conexiones de Hikari que no ocupan los workers asíncronos, dejando una
+     * libre para el resto de la API.
+     */
+    @Bean(name = "csvZipUploadExecutor")
+    public ThreadPoolTaskExecutor csvZipUploadExecutor(
+            @Value("${csv.upload.zip.parallelism:0}") int parallelism,
+            @Value("${csv.upload.async.workers:2}") int asyncWorkers,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        int workers = parallelism > 0 ? parallelism : Math.max(1, connectionPoolSize - asyncWorkers - 1);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("csv-zip-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        return executor;
+    }
+}
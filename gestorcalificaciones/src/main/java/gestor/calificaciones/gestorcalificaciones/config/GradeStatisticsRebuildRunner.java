@@ -0,0 +1,35 @@
+package gestor.calificaciones.gestorcalificaciones.config;
+
+import gestor.calificaciones.gestorcalificaciones.service.GradeStatisticsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Al iniciar, reconstruye las estadísticas de los cursos que aún no las tienen
+ * (anteriores a las tablas de estadísticas o cuyas filas se descartaron), para
+ * que las consultas nunca tengan que escribirlas. Con
+ * {@code --rebuild-grade-statistics} reconstruye las de todos los cursos, para
+ * corregir desviaciones.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GradeStatisticsRebuildRunner implements ApplicationRunner {
+
+    static final String REBUILD_OPTION = "rebuild-grade-statistics";
+
+    private final GradeStatisticsService gradeStatisticsService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(REBUILD_OPTION)) {
+            gradeStatisticsService.rebuildMissing();
+            return;
+        }
+        log.info("Reconstruyendo las estadísticas de calificaciones de todos los cursos");
+        gradeStatisticsService.rebuildAll();
+    }
+}
@@ -0,0 +1,45 @@
+package gestor.calificaciones.gestorcalificaciones.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea al iniciar los índices de expresión que usan las búsquedas de
+ * estudiantes de las cargas de CSV, que Hibernate no puede declarar.
+ *
+ * <p>{@code StudentRepository.findByLowerCaseNameIn} filtra por
+ * {@code lower(name)} y {@code findEmailsSharingBase} por el email sin sufijo
+ * numérico; sin estos índices cada bloque de la carga recorre toda la tabla
+ * {@code users}. Se crean sin bloquear escrituras y solo si no existen.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserLookupIndexRunner implements ApplicationRunner {
+
+    // Las expresiones deben coincidir exactamente con las de las consultas del repositorio
+    private static final String[] INDEXES = {
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_lower_name ON users (lower(name))",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_base " +
+                    "ON users (regexp_replace(email, '\\.[0-9]+@', '@'))"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String index : INDEXES) {
+            try {
+                jdbcTemplate.execute(index);
+            } catch (DataAccessException e) {
+                // Sin el índice las búsquedas siguen funcionando, solo más lentas
+                log.warn("No se pudo crear el índice de búsqueda de usuarios: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package gestor.calificaciones.gestorcalificaciones.controller;
 
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadJobResponse;
 import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
 import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvZipManifestEntry;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadInitRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadResponse;
 import gestor.calificaciones.gestorcalificaciones.DTO.Course.CreateCourseRequest;
 import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseResponse;
 import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseStatisticsResponse;
@@ -9,20 +13,32 @@ import gestor.calificaciones.gestorcalificaciones.entities.Course;
 import gestor.calificaciones.gestorcalificaciones.entities.User;
 import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
 import gestor.calificaciones.gestorcalificaciones.enums.Role;
+import gestor.calificaciones.gestorcalificaciones.enums.StudentPerformanceSort;
 import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
 import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
 import gestor.calificaciones.gestorcalificaciones.service.CourseStatisticsService;
+import gestor.calificaciones.gestorcalificaciones.service.CourseVersionRegistry;
 import gestor.calificaciones.gestorcalificaciones.service.CsvProcessingService;
+import gestor.calificaciones.gestorcalificaciones.service.CsvUploadJobService;
+import gestor.calificaciones.gestorcalificaciones.service.CsvZipUploadService;
+import gestor.calificaciones.gestorcalificaciones.service.ResumableUploadService;
+import gestor.calificaciones.gestorcalificaciones.service.StudentPerformanceService;
+import gestor.calificaciones.gestorcalificaciones.service.TeacherDashboardService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.ZipException;
 
 /**
  * Controlador REST para operaciones relacionadas con profesores.
@@ -41,7 +57,13 @@ import java.util.UUID;
 public class TeacherController {
 
     private final CsvProcessingService csvProcessingService;
+    private final CsvUploadJobService csvUploadJobService;
+    private final CsvZipUploadService csvZipUploadService;
+    private final ResumableUploadService resumableUploadService;
     private final CourseStatisticsService courseStatisticsService;
+    private final CourseVersionRegistry courseVersionRegistry;
+    private final StudentPerformanceService studentPerformanceService;
+    private final TeacherDashboardService teacherDashboardService;
     private final TeacherRepository teacherRepository;
     private final CourseRepository courseRepository;
 
@@ -153,6 +175,344 @@ public class TeacherController {
         }
     }
 
+    /**
+     * Carga un archivo CSV para procesarlo de forma asíncrona.
+     * 
+     * <p>El archivo se guarda en disco y se encola para que un pool acotado de
+     * workers lo importe. La petición responde de inmediato con el identificador
+     * del trabajo, cuyo avance se consulta en {@code GET /api/teacher/uploads/{jobId}}.
+     * El formato del CSV es el mismo que en {@code /upload-csv}.</p>
+     * 
+     * @param file Archivo CSV con las calificaciones (multipart/form-data)
+     * @param courseCode Código único del curso (ej: "PROG101")
+     * @param courseName Nombre del curso (ej: "Programación I")
+     * @param description Descripción opcional del curso
+     * @param authentication Información de autenticación del profesor
+     * @return Estado inicial del trabajo de importación
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * @apiNote Content-Type: multipart/form-data
+     * 
+     * @response 202 Accepted - Archivo encolado para su procesamiento
+     * @response 400 Bad Request - Archivo vacío o formato inválido
+     * @response 401 Unauthorized - No autenticado
+     * @response 503 Service Unavailable - Cola de cargas llena
+     * @response 500 Internal Server Error - Error al guardar el archivo
+     */
+    @PostMapping("/upload-csv/async")
+    public ResponseEntity<?> uploadCsvAsync(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam("courseCode") String courseCode,
+            @RequestParam("courseName") String courseName,
+            @RequestParam(value = "description", required = false) String description,
+            Authentication authentication) {
+        
+        try {
+            if (authentication == null || authentication.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+            }
+            
+            if (file == null || file.isEmpty()) {
+                return ResponseEntity.badRequest().body("No se ha proporcionado ningún archivo");
+            }
+            
+            UUID teacherId = UUID.fromString(authentication.getName());
+            
+            CsvUploadRequest request = CsvUploadRequest.builder()
+                    .courseCode(courseCode)
+                    .courseName(courseName)
+                    .description(description != null ? description : "")
+                    .build();
+            
+            CsvUploadJobResponse job = csvUploadJobService.submit(file, request, teacherId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error en el formato del ID del profesor: " + e.getMessage());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Hay demasiadas cargas en proceso, inténtelo más tarde");
+        } catch (IOException e) {
+            log.error("Error guardando CSV para carga asíncrona: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error guardando el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Carga un ZIP con varios archivos CSV, uno por curso.
+     * 
+     * <p>El manifiesto es una parte JSON con una lista de entradas
+     * ({@code fileName}, {@code courseCode}, {@code courseName},
+     * {@code description}) que asocia cada archivo del ZIP a su curso. Las
+     * entradas se importan en paralelo, cada una en su propia transacción, y el
+     * resultado incluye una respuesta por entrada en el orden del manifiesto.
+     * El formato de cada CSV es el mismo que en {@code /upload-csv}.</p>
+     * 
+     * @param file Archivo ZIP con los CSV (multipart/form-data)
+     * @param manifest Lista de entradas que asocian archivos a cursos (application/json)
+     * @param authentication Información de autenticación del profesor
+     * @return Resultado del procesamiento de cada entrada
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * @apiNote Content-Type: multipart/form-data
+     * 
+     * @response 200 OK - ZIP procesado; cada entrada indica si tuvo éxito
+     * @response 400 Bad Request - ZIP o manifiesto inválido
+     * @response 401 Unauthorized - No autenticado
+     * @response 500 Internal Server Error - Error al extraer el ZIP
+     */
+    @PostMapping("/upload-zip")
+    public ResponseEntity<?> uploadZip(
+            @RequestPart("file") MultipartFile file,
+            @RequestPart("manifest") List<CsvZipManifestEntry> manifest,
+            Authentication authentication) {
+        
+        if (authentication == null || authentication.getName() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+        }
+        
+        UUID teacherId;
+        try {
+            teacherId = UUID.fromString(authentication.getName());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error en el formato del ID del profesor: " + e.getMessage());
+        }
+        
+        if (file == null || file.isEmpty()) {
+            return ResponseEntity.badRequest().body("No se ha proporcionado ningún archivo");
+        }
+        
+        try {
+            List<CsvUploadResponse> responses = csvZipUploadService.processZip(file, manifest, teacherId);
+            return ResponseEntity.ok(responses);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ZipException e) {
+            return ResponseEntity.badRequest().body("El archivo no es un ZIP válido: " + e.getMessage());
+        } catch (IOException e) {
+            log.error("Error extrayendo ZIP: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error extrayendo el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el estado de una carga de CSV asíncrona.
+     * 
+     * <p>Informa la etapa actual del trabajo, el número de filas procesadas,
+     * los errores encontrados y, al terminar, el resultado de la importación.</p>
+     * 
+     * @param jobId Identificador del trabajo devuelto por {@code /upload-csv/async}
+     * @param authentication Información de autenticación del profesor
+     * @return Estado del trabajo de importación
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 200 OK - Estado obtenido exitosamente
+     * @response 401 Unauthorized - No autenticado
+     * @response 404 Not Found - Trabajo inexistente, expirado o de otro profesor
+     */
+    @GetMapping("/uploads/{jobId}")
+    public ResponseEntity<CsvUploadJobResponse> getUploadJob(@PathVariable UUID jobId, Authentication authentication) {
+        try {
+            UUID teacherId = UUID.fromString(authentication.getName());
+            return csvUploadJobService.getJob(jobId, teacherId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /**
+     * Inicia una carga de CSV reanudable.
+     * 
+     * <p>Pensado para archivos grandes o conexiones inestables: el archivo se
+     * envía por bloques con {@code PUT /api/teacher/uploads/resumable/{uploadId}?offset=N}
+     * y, si la conexión se corta, la carga continúa desde los bytes ya recibidos.
+     * El tamaño total y el SHA-256 declarados se verifican al completar.</p>
+     * 
+     * @param request Archivo, curso, tamaño total en bytes y SHA-256 en hexadecimal
+     * @param authentication Información de autenticación del profesor
+     * @return Estado inicial de la carga, con su identificador
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 201 Created - Carga iniciada
+     * @response 400 Bad Request - Datos de la carga inválidos
+     * @response 401 Unauthorized - No autenticado
+     * @response 500 Internal Server Error - Error al reservar el archivo temporal
+     */
+    @PostMapping("/uploads/resumable")
+    public ResponseEntity<?> startResumableUpload(@RequestBody ResumableUploadInitRequest request,
+                                                  Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+            }
+            UUID teacherId = UUID.fromString(authentication.getName());
+            
+            ResumableUploadResponse upload = resumableUploadService.start(request, teacherId);
+            return ResponseEntity.status(HttpStatus.CREATED).body(upload);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Error iniciando carga reanudable: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reservando el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el estado de una carga reanudable.
+     * 
+     * <p>{@code receivedBytes} indica el offset desde el que debe continuar el
+     * envío de bloques.</p>
+     * 
+     * @param uploadId Identificador de la carga
+     * @param authentication Información de autenticación del profesor
+     * @return Estado de la carga
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 200 OK - Estado obtenido exitosamente
+     * @response 401 Unauthorized - No autenticado
+     * @response 404 Not Found - Carga inexistente, expirada o de otro profesor
+     */
+    @GetMapping("/uploads/resumable/{uploadId}")
+    public ResponseEntity<ResumableUploadResponse> getResumableUpload(@PathVariable UUID uploadId,
+                                                                      Authentication authentication) {
+        try {
+            UUID teacherId = UUID.fromString(authentication.getName());
+            return resumableUploadService.getUpload(uploadId, teacherId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    /**
+     * Envía un bloque de una carga reanudable.
+     * 
+     * <p>El cuerpo de la petición son los bytes del bloque. El offset debe ser
+     * igual a los bytes ya recibidos, o menor para reenviar un bloque.</p>
+     * 
+     * @param uploadId Identificador de la carga
+     * @param offset Posición del bloque dentro del archivo
+     * @param body Contenido del bloque
+     * @param authentication Información de autenticación del profesor
+     * @return Estado de la carga tras escribir el bloque
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * @apiNote Content-Type: application/octet-stream
+     * 
+     * @response 200 OK - Bloque recibido
+     * @response 400 Bad Request - Bloque mayor que lo permitido
+     * @response 401 Unauthorized - No autenticado
+     * @response 404 Not Found - Carga inexistente, expirada o de otro profesor
+     * @response 409 Conflict - El offset no coincide con los bytes recibidos
+     * @response 500 Internal Server Error - Error al escribir el bloque
+     */
+    @PutMapping(value = "/uploads/resumable/{uploadId}", consumes = "application/octet-stream")
+    public ResponseEntity<?> uploadResumableChunk(@PathVariable UUID uploadId,
+                                                  @RequestParam("offset") long offset,
+                                                  InputStream body,
+                                                  Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+            }
+            UUID teacherId = UUID.fromString(authentication.getName());
+            
+            return resumableUploadService.writeChunk(uploadId, teacherId, offset, body)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (IOException e) {
+            log.error("Error escribiendo bloque de la carga {}: {}", uploadId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error escribiendo el bloque: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Completa una carga reanudable y encola su importación.
+     * 
+     * <p>Verifica que se hayan recibido todos los bytes y que el SHA-256
+     * coincida con el declarado. La importación continúa como una carga
+     * asíncrona, consultable en {@code GET /api/teacher/uploads/{jobId}}.</p>
+     * 
+     * @param uploadId Identificador de la carga
+     * @param authentication Información de autenticación del profesor
+     * @return Estado inicial del trabajo de importación
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 202 Accepted - Archivo verificado y encolado
+     * @response 400 Bad Request - El SHA-256 no coincide; la carga se descarta
+     * @response 401 Unauthorized - No autenticado
+     * @response 404 Not Found - Carga inexistente, expirada o de otro profesor
+     * @response 409 Conflict - Aún faltan bytes por recibir
+     * @response 503 Service Unavailable - Cola de cargas llena; se puede reintentar
+     */
+    @PostMapping("/uploads/resumable/{uploadId}/complete")
+    public ResponseEntity<?> completeResumableUpload(@PathVariable UUID uploadId, Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+            }
+            UUID teacherId = UUID.fromString(authentication.getName());
+            
+            return resumableUploadService.complete(uploadId, teacherId)
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (TaskRejectedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Hay demasiadas cargas en proceso, inténtelo más tarde");
+        } catch (IOException e) {
+            log.error("Error completando la carga {}: {}", uploadId, e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error leyendo el archivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancela una carga reanudable y elimina los bytes recibidos.
+     * 
+     * @param uploadId Identificador de la carga
+     * @param authentication Información de autenticación del profesor
+     * @return Respuesta vacía
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 204 No Content - Carga cancelada
+     * @response 401 Unauthorized - No autenticado
+     * @response 404 Not Found - Carga inexistente, expirada o de otro profesor
+     */
+    @DeleteMapping("/uploads/resumable/{uploadId}")
+    public ResponseEntity<Void> cancelResumableUpload(@PathVariable UUID uploadId, Authentication authentication) {
+        try {
+            UUID teacherId = UUID.fromString(authentication.getName());
+            return resumableUploadService.cancel(uploadId, teacherId)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
     /**
      * Crea un nuevo curso vacío.
      * 
@@ -212,6 +572,7 @@ public class TeacherController {
             course.setIsActive(true);
             
             Course savedCourse = courseRepository.save(course);
+            courseVersionRegistry.teacherChanged(teacherId);
             
             // Convertir a response
             CourseResponse response = courseStatisticsService.getCourseDetails(savedCourse.getId());
@@ -232,21 +593,33 @@ public class TeacherController {
      * la petición, incluyendo información sobre el número de estudiantes
      * y ejercicios en cada curso.</p>
      * 
+     * <p>La respuesta incluye un ETag con la versión de la lista de cursos; si
+     * el cliente envía ese valor en {@code If-None-Match} y la lista no ha
+     * cambiado, se responde 304 sin consultar la base de datos.</p>
+     * 
+     * @param ifNoneMatch ETag de una respuesta anterior (opcional)
      * @param authentication Información de autenticación del profesor
      * @return Lista de cursos del profesor
      * 
      * @apiNote Requiere autenticación como TEACHER
      * 
      * @response 200 OK - Lista de cursos obtenida exitosamente
+     * @response 304 Not Modified - La lista no cambió desde el ETag indicado
      * @response 401 Unauthorized - No autenticado
      * @response 500 Internal Server Error - Error al obtener los cursos
      */
     @GetMapping("/courses")
-    public ResponseEntity<List<CourseResponse>> getTeacherCourses(Authentication authentication) {
+    public ResponseEntity<List<CourseResponse>> getTeacherCourses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
         try {
             UUID teacherId = UUID.fromString(authentication.getName());
+            String eTag = toETag(courseStatisticsService.getTeacherCoursesVersion(teacherId));
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
             List<CourseResponse> courses = courseStatisticsService.getTeacherCourses(teacherId);
-            return ResponseEntity.ok(courses);
+            return ResponseEntity.ok().eTag(eTag).body(courses);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -301,25 +674,161 @@ public class TeacherController {
      *   <li>incorrectSubmissions: Número de ejercicios únicos con al menos una entrega incorrecta</li>
      * </ul>
      * 
+     * <p>Las estadísticas se sirven desde una caché mientras el curso no cambie.
+     * La respuesta incluye un ETag con la versión del curso; si el cliente envía
+     * ese valor en {@code If-None-Match} y el curso no ha cambiado, se responde
+     * 304 sin consultar la base de datos.</p>
+     * 
      * @param courseId Identificador único del curso (UUID)
+     * @param ifNoneMatch ETag de una respuesta anterior (opcional)
      * @param authentication Información de autenticación del profesor
      * @return Estadísticas completas del curso
      * 
      * @apiNote Requiere autenticación como TEACHER
      * 
      * @response 200 OK - Estadísticas obtenidas exitosamente
+     * @response 304 Not Modified - El curso no cambió desde el ETag indicado
      * @response 401 Unauthorized - No autenticado
      * @response 404 Not Found - Curso no encontrado
      * @response 500 Internal Server Error - Error al calcular las estadísticas
      */
     @GetMapping("/courses/{courseId}/statistics")
-    public ResponseEntity<CourseStatisticsResponse> getCourseStatistics(@PathVariable UUID courseId, Authentication authentication) {
+    public ResponseEntity<CourseStatisticsResponse> getCourseStatistics(
+            @PathVariable UUID courseId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
         try {
             UUID teacherId = UUID.fromString(authentication.getName());
+            String eTag = toETag(courseStatisticsService.getCourseVersion(courseId));
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
             CourseStatisticsResponse statistics = courseStatisticsService.getCourseStatistics(courseId);
-            return ResponseEntity.ok(statistics);
+            return ResponseEntity.ok().eTag(eTag).body(statistics);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * Obtiene el rendimiento por estudiante de un curso, ordenado, filtrado y paginado.
+     * 
+     * <p>Alternativa paginada a {@code studentPerformance} de las estadísticas del
+     * curso. La paginación es por cursor (keyset): la respuesta incluye
+     * {@code nextCursor}, que se envía como {@code cursor} junto con el mismo
+     * orden para obtener la página siguiente; es nulo en la última página.</p>
+     * 
+     * @param courseId Identificador único del curso (UUID)
+     * @param sort Orden: {@code name}, {@code average} o {@code completion} (por defecto {@code name})
+     * @param direction Sentido: {@code asc} o {@code desc} (por defecto {@code asc})
+     * @param completionBelow Solo estudiantes con porcentaje de completitud menor a este valor (opcional)
+     * @param averageBelow Solo estudiantes con promedio menor a este valor (opcional)
+     * @param cursor Cursor devuelto por la página anterior (opcional)
+     * @param limit Tamaño de página, entre 1 y 200 (por defecto 50)
+     * @param authentication Información de autenticación del profesor
+     * @return Página de rendimiento por estudiante
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 200 OK - Página obtenida exitosamente
+     * @response 400 Bad Request - Orden, sentido, cursor o tamaño de página inválidos
+     * @response 401 Unauthorized - No autenticado
+     * @response 404 Not Found - Curso no encontrado
+     * @response 500 Internal Server Error - Error al obtener el rendimiento
+     */
+    @GetMapping("/courses/{courseId}/statistics/students")
+    public ResponseEntity<?> getStudentPerformance(
+            @PathVariable UUID courseId,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) Double completionBelow,
+            @RequestParam(required = false) Double averageBelow,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + StudentPerformanceService.DEFAULT_PAGE_SIZE) int limit,
+            Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+            }
+            
+            StudentPerformanceSort performanceSort;
+            try {
+                performanceSort = StudentPerformanceSort.valueOf(sort.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Orden inválido: use name, average o completion");
+            }
+            if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                return ResponseEntity.badRequest().body("Sentido inválido: use asc o desc");
+            }
+            
+            return studentPerformanceService.getPage(courseId, performanceSort, direction.equalsIgnoreCase("desc"),
+                            completionBelow, averageBelow, cursor, limit)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Curso no encontrado"));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error obteniendo el rendimiento por estudiante: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error al obtener el rendimiento: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene el panel del profesor autenticado: un resumen por cada curso activo.
+     * 
+     * <p>Cada resumen incluye estudiantes, ejercicios, promedio, completitud
+     * promedio y número de estudiantes en riesgo (promedio o completitud bajo los
+     * umbrales indicados en la respuesta). Los cursos se calculan en paralelo, por
+     * lo que la latencia se acerca a la del curso más lento. Un curso que no se
+     * pudo calcular aparece con el campo {@code error} y no detiene a los demás.</p>
+     * 
+     * @param authentication Información de autenticación del profesor
+     * @return Panel con el resumen de cada curso y los totales
+     * 
+     * @apiNote Requiere autenticación como TEACHER
+     * 
+     * @response 200 OK - Panel obtenido exitosamente
+     * @response 401 Unauthorized - No autenticado
+     * @response 500 Internal Server Error - Error al obtener el panel
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<?> getDashboard(Authentication authentication) {
+        try {
+            if (authentication == null || authentication.getName() == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("No autenticado");
+            }
+            
+            UUID teacherId = UUID.fromString(authentication.getName());
+            return ResponseEntity.ok(teacherDashboardService.getDashboard(teacherId));
+            
+        } catch (RuntimeException e) {
+            log.error("Error obteniendo el panel del profesor: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error al obtener el panel: " + e.getMessage());
+        }
+    }
+
+    private String toETag(String version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Compara el encabezado If-None-Match (una lista de ETags, posiblemente
+     * débiles, o {@code *}) con el ETag actual.
+     */
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
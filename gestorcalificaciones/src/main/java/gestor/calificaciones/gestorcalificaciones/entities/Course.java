@@ -16,7 +16,7 @@ import java.util.UUID;
 @Table(name = "courses")
 public class Course {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
     
     @Column(nullable = false)
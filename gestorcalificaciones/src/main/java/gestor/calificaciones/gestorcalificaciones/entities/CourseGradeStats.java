@@ -0,0 +1,27 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Totales de calificaciones de un curso (incluidos los ejercicios inactivos),
+ * mantenidos de forma incremental en la misma transacción que las escrituras
+ * de calificaciones.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "course_grade_stats")
+public class CourseGradeStats {
+    @Id
+    @Column(name = "course_id")
+    private UUID courseId;
+    
+    @Embedded
+    private GradeCounters counters;
+}
@@ -0,0 +1,60 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Avance confirmado de una importación de CSV por bloques. Se actualiza en la
+ * misma transacción que cada bloque, de modo que una carga interrumpida del
+ * mismo archivo (mismo SHA-256) continúa después de la última fila confirmada.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "csv_import_checkpoints")
+public class CsvImportCheckpoint {
+    @Id
+    @UuidV7Id
+    private UUID id;
+    
+    @Column(name = "course_code", unique = true, nullable = false)
+    private String courseCode;
+    
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+    
+    @Column(name = "file_name")
+    private String fileName;
+    
+    // Número de fila del CSV (el encabezado es la fila 1) hasta el que se confirmó la carga
+    @Column(name = "last_row_number")
+    private int lastRowNumber;
+    
+    @Column(name = "imported_rows")
+    private int importedRows;
+    
+    @Column(name = "inserted_grades")
+    private int insertedGrades;
+    
+    @Column(name = "updated_grades")
+    private int updatedGrades;
+    
+    @Column(name = "unchanged_grades")
+    private int unchangedGrades;
+    
+    // Errores de fila acumulados, uno por línea
+    @Column(name = "row_errors", columnDefinition = "text")
+    private String rowErrors;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,58 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Última importación exitosa de CSV de cada curso: el SHA-256 del archivo y el
+ * resultado obtenido, para responder sin reimportar cuando se vuelve a subir
+ * exactamente el mismo archivo.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "csv_import_records")
+public class CsvImportRecord {
+    @Id
+    @UuidV7Id
+    private UUID id;
+    
+    @Column(name = "course_code", unique = true, nullable = false)
+    private String courseCode;
+    
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+    
+    @Column(name = "course_name")
+    private String courseName;
+    
+    @Column(name = "file_name")
+    private String fileName;
+    
+    @Column(name = "content_hash", length = 64, nullable = false)
+    private String contentHash;
+    
+    @Column(name = "total_students")
+    private int totalStudents;
+    
+    @Column(name = "total_exercises")
+    private int totalExercises;
+    
+    @Column(name = "inserted_grades")
+    private int insertedGrades;
+    
+    @Column(name = "updated_grades")
+    private int updatedGrades;
+    
+    @Column(name = "unchanged_grades")
+    private int unchangedGrades;
+    
+    @Column(name = "imported_at")
+    private LocalDateTime importedAt;
+}
@@ -13,10 +13,11 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "exercises")
+@Table(name = "exercises", uniqueConstraints = @UniqueConstraint(
+        name = "uk_exercises_course_name", columnNames = {"course_id", "name"}))
 public class Exercise {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
     
     @Column(nullable = false)
@@ -0,0 +1,30 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Conteos de calificaciones de un ejercicio, mantenidos de forma incremental en
+ * la misma transacción que las escrituras de calificaciones.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "exercise_grade_stats", indexes = @Index(
+        name = "idx_exercise_grade_stats_course", columnList = "course_id"))
+public class ExerciseGradeStats {
+    @Id
+    @Column(name = "exercise_id")
+    private UUID exerciseId;
+    
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+    
+    @Embedded
+    private GradeCounters counters;
+}
@@ -0,0 +1,37 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Número de calificaciones de un ejercicio con un mismo puntaje (0 a 100),
+ * mantenido de forma incremental junto con las demás estadísticas.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "exercise_score_buckets", uniqueConstraints = @UniqueConstraint(
+        name = "uk_exercise_score_buckets", columnNames = {"exercise_id", "score"}),
+        indexes = @Index(name = "idx_exercise_score_buckets_course", columnList = "course_id"))
+public class ExerciseScoreBucket {
+    @Id
+    @UuidV7Id
+    private UUID id;
+    
+    @Column(name = "exercise_id", nullable = false)
+    private UUID exerciseId;
+    
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+    
+    @Column(name = "score", nullable = false)
+    private int score;
+    
+    @Column(name = "grade_count", nullable = false)
+    private int gradeCount;
+}
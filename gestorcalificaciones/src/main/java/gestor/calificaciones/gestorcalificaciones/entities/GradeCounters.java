@@ -0,0 +1,72 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Conteos de calificaciones por estado y suma de puntajes no nulos, compartidos
+ * por las tablas de estadísticas de curso, ejercicio y estudiante.
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GradeCounters {
+    
+    @Column(name = "correct_count", nullable = false)
+    private int correctCount;
+    
+    @Column(name = "incorrect_count", nullable = false)
+    private int incorrectCount;
+    
+    @Column(name = "pending_count", nullable = false)
+    private int pendingCount;
+    
+    @Column(name = "not_submitted_count", nullable = false)
+    private int notSubmittedCount;
+    
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+    
+    @Column(name = "score_count", nullable = false)
+    private int scoreCount;
+    
+    public int count(GradeStatus status) {
+        return switch (status) {
+            case CORRECT -> correctCount;
+            case INCORRECT -> incorrectCount;
+            case PENDING -> pendingCount;
+            case NOT_SUBMITTED -> notSubmittedCount;
+        };
+    }
+    
+    /**
+     * Suma (o resta, con conteos negativos) calificaciones con el estado indicado.
+     */
+    public void add(GradeStatus status, int count, long scoreSum, int scoreCount) {
+        switch (status) {
+            case CORRECT -> correctCount += count;
+            case INCORRECT -> incorrectCount += count;
+            case PENDING -> pendingCount += count;
+            case NOT_SUBMITTED -> notSubmittedCount += count;
+        }
+        this.scoreSum += scoreSum;
+        this.scoreCount += scoreCount;
+    }
+    
+    public int total() {
+        return correctCount + incorrectCount + pendingCount + notSubmittedCount;
+    }
+    
+    public double averageScore() {
+        return scoreCount > 0 ? (double) scoreSum / scoreCount : 0.0;
+    }
+    
+    public boolean isEmpty() {
+        return total() == 0 && scoreSum == 0 && scoreCount == 0;
+    }
+}
@@ -12,10 +12,11 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "student_courses")
+@Table(name = "student_courses", uniqueConstraints = @UniqueConstraint(
+        name = "uk_student_courses_student_course", columnNames = {"student_id", "course_id"}))
 public class StudentCourse {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
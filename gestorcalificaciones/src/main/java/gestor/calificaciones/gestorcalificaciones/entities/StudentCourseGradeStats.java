@@ -0,0 +1,34 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Conteos de calificaciones de un estudiante en un curso, mantenidos de forma
+ * incremental en la misma transacción que las escrituras de calificaciones.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "student_course_grade_stats", uniqueConstraints = @UniqueConstraint(
+        name = "uk_student_course_grade_stats", columnNames = {"student_id", "course_id"}),
+        indexes = @Index(name = "idx_student_course_grade_stats_course", columnList = "course_id"))
+public class StudentCourseGradeStats {
+    @Id
+    @UuidV7Id
+    private UUID id;
+    
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+    
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+    
+    @Embedded
+    private GradeCounters counters;
+}
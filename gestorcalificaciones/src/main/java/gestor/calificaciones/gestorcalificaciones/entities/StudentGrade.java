@@ -13,10 +13,11 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "student_grades")
+@Table(name = "student_grades", uniqueConstraints = @UniqueConstraint(
+        name = "uk_student_grades_student_exercise", columnNames = {"student_id", "exercise_id"}))
 public class StudentGrade {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     private UUID id;
     
     @ManyToOne(fetch = FetchType.LAZY)
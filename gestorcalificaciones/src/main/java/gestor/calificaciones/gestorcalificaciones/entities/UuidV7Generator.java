@@ -0,0 +1,71 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Generador de UUID versión 7 (RFC 9562) monotónicos.
+ *
+ * <p>Los 48 bits más significativos son el instante en milisegundos, seguidos
+ * de un contador de 12 bits para los ids creados en el mismo milisegundo y 62
+ * bits aleatorios. Los ids nuevos quedan ordenados por creación, de modo que
+ * las inserciones masivas se agrupan al final del índice de la clave primaria
+ * en lugar de repartirse por todo el árbol como los UUID v4. La columna sigue
+ * siendo {@code uuid}, por lo que los ids v4 existentes conviven sin cambios.</p>
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+
+    // Último instante y contador emitidos, compartidos por todas las entidades
+    private static long lastTimestamp;
+    private static long counter;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return nextUuid();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    /**
+     * Devuelve un nuevo UUID v7, estrictamente mayor que el anterior generado
+     * por este proceso.
+     */
+    public static UUID nextUuid() {
+        long randomBits = RANDOM.nextLong();
+        long timestampAndCounter = nextTimestampAndCounter();
+
+        long timestamp = timestampAndCounter >>> COUNTER_BITS;
+        long sequence = timestampAndCounter & COUNTER_MASK;
+        long mostSignificant = (timestamp << 16) | (0x7L << 12) | sequence;
+        long leastSignificant = (randomBits >>> 2) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static synchronized long nextTimestampAndCounter() {
+        long now = System.currentTimeMillis();
+        if (now > lastTimestamp) {
+            lastTimestamp = now;
+            // Iniciar el contador en un valor bajo aleatorio deja margen para crecer en el mismo milisegundo
+            counter = RANDOM.nextInt(1 << (COUNTER_BITS - 2));
+        } else if (++counter > COUNTER_MASK) {
+            // Contador agotado o reloj atrasado: avanzar el instante para mantener el orden
+            lastTimestamp++;
+            counter = 0;
+        }
+        return (lastTimestamp << COUNTER_BITS) | counter;
+    }
+}
@@ -0,0 +1,19 @@
+package gestor.calificaciones.gestorcalificaciones.enums;
+
+public enum CsvUploadStage {
+    QUEUED("En cola"),
+    PREPARING("Preparando curso y ejercicios"),
+    IMPORTING("Importando calificaciones"),
+    COMPLETED("Completado"),
+    FAILED("Fallido");
+    
+    private final String description;
+    
+    CsvUploadStage(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+}
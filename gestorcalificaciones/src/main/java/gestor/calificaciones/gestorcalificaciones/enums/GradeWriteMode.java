@@ -0,0 +1,11 @@
+package gestor.calificaciones.gestorcalificaciones.enums;
+
+/**
+ * Estrategia usada por la importación de CSV para escribir las calificaciones.
+ */
+public enum GradeWriteMode {
+    /** Entidades JPA en batch, comparadas contra las calificaciones existentes del curso. */
+    JPA,
+    /** COPY de PostgreSQL a una tabla temporal y fusión con INSERT ... ON CONFLICT. */
+    COPY
+}
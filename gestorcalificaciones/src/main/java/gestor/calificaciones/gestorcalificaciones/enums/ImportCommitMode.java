@@ -0,0 +1,11 @@
+package gestor.calificaciones.gestorcalificaciones.enums;
+
+/**
+ * Forma en que la importación de CSV confirma las filas en la base de datos.
+ */
+public enum ImportCommitMode {
+    /** Todo el archivo en una sola transacción: cualquier error revierte la carga completa. */
+    SINGLE,
+    /** Una transacción por bloque con checkpoint; los errores de fila se informan y la carga puede reanudarse. */
+    CHUNKED
+}
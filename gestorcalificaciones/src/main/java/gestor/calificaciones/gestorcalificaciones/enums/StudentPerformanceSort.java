@@ -0,0 +1,13 @@
+package gestor.calificaciones.gestorcalificaciones.enums;
+
+/**
+ * Criterio de orden de la lista paginada de rendimiento por estudiante.
+ */
+public enum StudentPerformanceSort {
+    /** Nombre del estudiante. */
+    NAME,
+    /** Promedio de los puntajes no nulos. */
+    AVERAGE,
+    /** Porcentaje de ejercicios entregados. */
+    COMPLETION
+}
@@ -0,0 +1,9 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import java.util.UUID;
+
+/**
+ * Número de estudiantes inscritos activos y de ejercicios activos de un curso.
+ */
+public record CourseContentCount(UUID courseId, Long activeStudents, Long activeExercises) {
+}
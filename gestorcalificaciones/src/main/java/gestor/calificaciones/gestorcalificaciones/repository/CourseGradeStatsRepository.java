@@ -0,0 +1,18 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.entities.CourseGradeStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface CourseGradeStatsRepository extends JpaRepository<CourseGradeStats, UUID> {
+    
+    @Modifying
+    @Query("DELETE FROM CourseGradeStats s WHERE s.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
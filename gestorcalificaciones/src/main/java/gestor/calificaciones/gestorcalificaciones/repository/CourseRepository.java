@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,4 +23,18 @@ public interface CourseRepository extends JpaRepository<Course, UUID> {
     List<Course> findActiveCoursesByTeacherId(@Param("teacherId") UUID teacherId);
     
     boolean existsByCourseCode(String courseCode);
+    
+    // Conteos de todos los cursos indicados en una sola consulta
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.CourseContentCount(c.id, " +
+           "(SELECT COUNT(sc) FROM StudentCourse sc WHERE sc.course.id = c.id AND sc.isActive = true), " +
+           "(SELECT COUNT(e) FROM Exercise e WHERE e.course.id = c.id AND e.isActive = true)) " +
+           "FROM Course c WHERE c.id IN :courseIds")
+    List<CourseContentCount> countContentByCourseIds(@Param("courseIds") Collection<UUID> courseIds);
+    
+    @Query("SELECT c.id FROM Course c")
+    List<UUID> findAllIds();
+    
+    @Query("SELECT c.id FROM Course c WHERE NOT EXISTS " +
+           "(SELECT 1 FROM CourseGradeStats s WHERE s.courseId = c.id)")
+    List<UUID> findIdsWithoutGradeStats();
 }
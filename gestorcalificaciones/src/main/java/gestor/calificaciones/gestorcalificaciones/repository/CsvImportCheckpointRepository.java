@@ -0,0 +1,14 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.entities.CsvImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CsvImportCheckpointRepository extends JpaRepository<CsvImportCheckpoint, UUID> {
+    
+    Optional<CsvImportCheckpoint> findByCourseCode(String courseCode);
+}
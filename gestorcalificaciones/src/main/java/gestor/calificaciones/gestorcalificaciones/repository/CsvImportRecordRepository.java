@@ -0,0 +1,14 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.entities.CsvImportRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CsvImportRecordRepository extends JpaRepository<CsvImportRecord, UUID> {
+    
+    Optional<CsvImportRecord> findByCourseCode(String courseCode);
+}
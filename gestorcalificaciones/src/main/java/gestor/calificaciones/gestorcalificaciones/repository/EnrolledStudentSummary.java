@@ -0,0 +1,9 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import java.util.UUID;
+
+/**
+ * Proyección ligera de un estudiante inscrito en un curso.
+ */
+public record EnrolledStudentSummary(UUID id, String name, String email) {
+}
@@ -0,0 +1,21 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.entities.ExerciseGradeStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ExerciseGradeStatsRepository extends JpaRepository<ExerciseGradeStats, UUID> {
+    
+    List<ExerciseGradeStats> findByCourseId(UUID courseId);
+    
+    @Modifying
+    @Query("DELETE FROM ExerciseGradeStats s WHERE s.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
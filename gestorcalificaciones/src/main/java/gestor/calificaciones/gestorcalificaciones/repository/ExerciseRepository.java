@@ -19,6 +19,13 @@ public interface ExerciseRepository extends JpaRepository<Exercise, UUID> {
     @Query("SELECT e FROM Exercise e WHERE e.course.id = :courseId AND e.isActive = true")
     List<Exercise> findActiveExercisesByCourseId(@Param("courseId") UUID courseId);
     
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.ExerciseSummary(e.id, e.name) " +
+           "FROM Exercise e WHERE e.course.id = :courseId AND e.isActive = true")
+    List<ExerciseSummary> findActiveSummariesByCourseId(@Param("courseId") UUID courseId);
+    
+    @Query("SELECT e FROM Exercise e WHERE e.course.id = :courseId")
+    List<Exercise> findByCourseId(@Param("courseId") UUID courseId);
+    
     @Query("SELECT e FROM Exercise e WHERE e.course.id = :courseId AND e.name = :exerciseName")
     Optional<Exercise> findByCourseIdAndName(@Param("courseId") UUID courseId, @Param("exerciseName") String exerciseName);
 }
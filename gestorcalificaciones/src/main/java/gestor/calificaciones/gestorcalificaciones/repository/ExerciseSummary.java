@@ -0,0 +1,9 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import java.util.UUID;
+
+/**
+ * Proyección ligera de un ejercicio: identificador y nombre.
+ */
+public record ExerciseSummary(UUID id, String name) {
+}
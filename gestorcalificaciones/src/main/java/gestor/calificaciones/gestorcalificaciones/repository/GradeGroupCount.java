@@ -0,0 +1,12 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+
+import java.util.UUID;
+
+/**
+ * Conteo agrupado de calificaciones por un identificador (ejercicio o
+ * estudiante) y estado, con la suma y el número de puntajes no nulos.
+ */
+public record GradeGroupCount(UUID groupId, GradeStatus status, Long gradeCount, Long scoreSum, Long scoreCount) {
+}
@@ -0,0 +1,9 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import java.util.UUID;
+
+/**
+ * Número de calificaciones de un ejercicio con un mismo puntaje.
+ */
+public record ScoreBucketCount(UUID exerciseId, Integer score, Long gradeCount) {
+}
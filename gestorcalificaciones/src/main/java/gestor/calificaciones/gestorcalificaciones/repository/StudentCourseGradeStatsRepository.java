@@ -0,0 +1,21 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.entities.StudentCourseGradeStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StudentCourseGradeStatsRepository extends JpaRepository<StudentCourseGradeStats, UUID> {
+    
+    List<StudentCourseGradeStats> findByCourseId(UUID courseId);
+    
+    @Modifying
+    @Query("DELETE FROM StudentCourseGradeStats s WHERE s.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") UUID courseId);
+}
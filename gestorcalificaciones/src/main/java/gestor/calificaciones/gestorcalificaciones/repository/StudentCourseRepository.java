@@ -8,8 +8,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
@@ -25,6 +27,17 @@ public interface StudentCourseRepository extends JpaRepository<StudentCourse, UU
     @Query("SELECT sc FROM StudentCourse sc WHERE sc.course.id = :courseId AND sc.isActive = true")
     List<StudentCourse> findActiveByCourseId(@Param("courseId") UUID courseId);
     
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.EnrolledStudentSummary(s.id, s.name, s.email) " +
+           "FROM StudentCourse sc JOIN sc.student s WHERE sc.course.id = :courseId AND sc.isActive = true")
+    List<EnrolledStudentSummary> findActiveStudentSummariesByCourseId(@Param("courseId") UUID courseId);
+    
+    @Query("SELECT sc.student.id FROM StudentCourse sc WHERE sc.course.id = :courseId")
+    Set<UUID> findStudentIdsByCourseId(@Param("courseId") UUID courseId);
+    
+    @Query("SELECT sc.student.id FROM StudentCourse sc WHERE sc.course.id = :courseId AND sc.student.id IN :studentIds")
+    Set<UUID> findStudentIdsByCourseIdAndStudentIds(@Param("courseId") UUID courseId,
+                                                    @Param("studentIds") Collection<UUID> studentIds);
+    
     Optional<StudentCourse> findByStudentIdAndCourseId(UUID studentId, UUID courseId);
     
     boolean existsByStudentIdAndCourseId(UUID studentId, UUID courseId);
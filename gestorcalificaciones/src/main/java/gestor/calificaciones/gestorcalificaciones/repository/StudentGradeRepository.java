@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -33,6 +34,17 @@ public interface StudentGradeRepository extends JpaRepository<StudentGrade, UUID
            "WHERE e.course.id = :courseId")
     List<StudentGrade> findByCourseIdWithFetch(@Param("courseId") UUID courseId);
     
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.StudentGradeSnapshot(" +
+           "sg.id, sg.student.id, sg.exercise.id, sg.score, sg.status) " +
+           "FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId")
+    List<StudentGradeSnapshot> findSnapshotsByCourseId(@Param("courseId") UUID courseId);
+    
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.StudentGradeSnapshot(" +
+           "sg.id, sg.student.id, sg.exercise.id, sg.score, sg.status) " +
+           "FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId AND sg.student.id IN :studentIds")
+    List<StudentGradeSnapshot> findSnapshotsByCourseIdAndStudentIds(@Param("courseId") UUID courseId,
+                                                                    @Param("studentIds") Collection<UUID> studentIds);
+    
     @Query("SELECT sg FROM StudentGrade sg WHERE sg.student.id = :studentId AND sg.status = :status")
     List<StudentGrade> findByStudentIdAndStatus(@Param("studentId") UUID studentId, @Param("status") GradeStatus status);
     
@@ -48,6 +60,27 @@ public interface StudentGradeRepository extends JpaRepository<StudentGrade, UUID
     @Query("SELECT COUNT(DISTINCT sg.exercise.id) FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId AND sg.status = :status")
     Long countDistinctExercisesByCourseIdAndStatus(@Param("courseId") UUID courseId, @Param("status") GradeStatus status);
     
+    // Conteos por ejercicio y estado en una sola consulta, sin hidratar calificaciones
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.GradeGroupCount(" +
+           "sg.exercise.id, sg.status, COUNT(sg), SUM(sg.score), COUNT(sg.score)) " +
+           "FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId " +
+           "GROUP BY sg.exercise.id, sg.status")
+    List<GradeGroupCount> countByCourseIdGroupByExerciseAndStatus(@Param("courseId") UUID courseId);
+    
+    // Conteos por estudiante y estado en una sola consulta, sin hidratar calificaciones
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.GradeGroupCount(" +
+           "sg.student.id, sg.status, COUNT(sg), SUM(sg.score), COUNT(sg.score)) " +
+           "FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId " +
+           "GROUP BY sg.student.id, sg.status")
+    List<GradeGroupCount> countByCourseIdGroupByStudentAndStatus(@Param("courseId") UUID courseId);
+    
+    // Conteos por ejercicio y puntaje, para reconstruir los histogramas
+    @Query("SELECT new gestor.calificaciones.gestorcalificaciones.repository.ScoreBucketCount(" +
+           "sg.exercise.id, sg.score, COUNT(sg)) " +
+           "FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId AND sg.score IS NOT NULL " +
+           "GROUP BY sg.exercise.id, sg.score")
+    List<ScoreBucketCount> countByCourseIdGroupByExerciseAndScore(@Param("courseId") UUID courseId);
+    
     // Consulta optimizada para obtener promedio de score
     @Query("SELECT AVG(sg.score) FROM StudentGrade sg WHERE sg.exercise.course.id = :courseId AND sg.score IS NOT NULL")
     Double getAverageScoreByCourseIdOptimized(@Param("courseId") UUID courseId);
@@ -0,0 +1,12 @@
+package gestor.calificaciones.gestorcalificaciones.repository;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+
+import java.util.UUID;
+
+/**
+ * Proyección ligera de una calificación: solo identificadores y valores,
+ * sin hidratar la entidad ni sus relaciones.
+ */
+public record StudentGradeSnapshot(UUID id, UUID studentId, UUID exerciseId, Integer score, GradeStatus status) {
+}
@@ -1,5 +1,7 @@
 package gestor.calificaciones.gestorcalificaciones.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +17,14 @@ public interface StudentRepository extends JpaRepository<Student, UUID>{
     
     @Query("SELECT s FROM Student s WHERE s.email = :email")
     Optional<Student> findByEmail(@Param("email") String email);
+    
+    // Usa el índice idx_users_lower_name (UserLookupIndexRunner)
+    @Query("SELECT s FROM Student s WHERE LOWER(s.name) IN :names")
+    List<Student> findByLowerCaseNameIn(@Param("names") Collection<String> names);
+    
+    // Emails iguales a los indicados o que solo difieren en un sufijo numérico (base.N@dominio);
+    // usa uk_users_email y el índice de expresión idx_users_email_base (UserLookupIndexRunner)
+    @Query(value = "SELECT u.email FROM users u WHERE u.email IN (:emails) " +
+                   "OR regexp_replace(u.email, '\\.[0-9]+@', '@') IN (:emails)", nativeQuery = true)
+    List<String> findEmailsSharingBase(@Param("emails") Collection<String> emails);
 }
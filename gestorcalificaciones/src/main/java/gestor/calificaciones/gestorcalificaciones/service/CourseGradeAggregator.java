@@ -0,0 +1,222 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseScoreDistribution;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.ExerciseScoreDistribution;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.ExerciseStatistics;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformance;
+import gestor.calificaciones.gestorcalificaciones.entities.GradeCounters;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import gestor.calificaciones.gestorcalificaciones.repository.EnrolledStudentSummary;
+import gestor.calificaciones.gestorcalificaciones.repository.ExerciseSummary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pliega en índices densos las filas de conteos de un curso: por ejercicio, por
+ * estudiante y por ejercicio y puntaje.
+ *
+ * <p>Las filas llegan ya agregadas, desde las tablas de estadísticas o
+ * agrupadas desde las calificaciones. Cada ejercicio y estudiante recibe un
+ * índice denso (su posición en la lista) y sus conteos e histogramas se suman
+ * en arreglos primitivos. Las filas de ejercicios inactivos o de estudiantes no
+ * inscritos no aparecen en las listas, pero las de ejercicios sí cuentan en los
+ * ejercicios con entregas y en el histograma del curso, como hasta ahora.</p>
+ */
+class CourseGradeAggregator {
+
+    // Posiciones de cada estado dentro del bloque de conteos de un ejercicio o estudiante
+    private static final int CORRECT = 0;
+    private static final int INCORRECT = 1;
+    private static final int PENDING = 2;
+    private static final int NOT_SUBMITTED = 3;
+    private static final int STATUS_SLOTS = 4;
+
+    private final List<ExerciseSummary> exercises;
+    private final List<EnrolledStudentSummary> students;
+    private final Map<UUID, Integer> exerciseIndex;
+    private final Map<UUID, Integer> studentIndex;
+
+    private final int[] exerciseCounts;
+    private final long[] exerciseScoreSums;
+    private final int[] exerciseScoreCounts;
+    private final int[] studentCounts;
+    private final long[] studentScoreSums;
+    private final int[] studentScoreCounts;
+
+    // Ejercicios del curso, incluidos los inactivos, con al menos una calificación en cada estado
+    private final int[] exercisesWithStatus = new int[STATUS_SLOTS];
+
+    // Histogramas de puntajes: uno por ejercicio, contiguos, y el del curso (incluidos los ejercicios inactivos)
+    private final int[] exerciseHistograms;
+    private final int[] courseHistogram = new int[ScoreHistogram.BUCKETS];
+
+    CourseGradeAggregator(List<ExerciseSummary> exercises, List<EnrolledStudentSummary> students) {
+        this.exercises = exercises;
+        this.students = students;
+        this.exerciseIndex = indexOf(exercises.stream().map(ExerciseSummary::id).toList());
+        this.studentIndex = indexOf(students.stream().map(EnrolledStudentSummary::id).toList());
+
+        this.exerciseCounts = new int[exercises.size() * STATUS_SLOTS];
+        this.exerciseScoreSums = new long[exercises.size()];
+        this.exerciseScoreCounts = new int[exercises.size()];
+        this.studentCounts = new int[students.size() * STATUS_SLOTS];
+        this.studentScoreSums = new long[students.size()];
+        this.studentScoreCounts = new int[students.size()];
+        this.exerciseHistograms = new int[exercises.size() * ScoreHistogram.BUCKETS];
+    }
+
+    /**
+     * Acumula los conteos de un ejercicio del curso.
+     */
+    void addExercise(UUID exerciseId, GradeCounters counters) {
+        for (GradeStatus status : GradeStatus.values()) {
+            if (counters.count(status) > 0) {
+                exercisesWithStatus[slotOf(status)]++;
+            }
+        }
+
+        Integer exercise = exerciseIndex.get(exerciseId);
+        if (exercise != null) {
+            addCounters(exerciseCounts, exercise, counters);
+            exerciseScoreSums[exercise] += counters.getScoreSum();
+            exerciseScoreCounts[exercise] += counters.getScoreCount();
+        }
+    }
+
+    /**
+     * Acumula los conteos de un estudiante en el curso.
+     */
+    void addStudent(UUID studentId, GradeCounters counters) {
+        Integer student = studentIndex.get(studentId);
+        if (student == null) {
+            return;
+        }
+        addCounters(studentCounts, student, counters);
+        studentScoreSums[student] += counters.getScoreSum();
+        studentScoreCounts[student] += counters.getScoreCount();
+    }
+
+    /**
+     * Acumula las calificaciones de un ejercicio con un mismo puntaje.
+     */
+    void addScoreBucket(UUID exerciseId, int score, int count) {
+        int bucket = ScoreHistogram.bucketOf(score);
+        courseHistogram[bucket] += count;
+
+        Integer exercise = exerciseIndex.get(exerciseId);
+        if (exercise != null) {
+            exerciseHistograms[exercise * ScoreHistogram.BUCKETS + bucket] += count;
+        }
+    }
+
+    /**
+     * Distribución de puntajes del curso y de cada ejercicio, en el orden de la
+     * lista de ejercicios.
+     */
+    CourseScoreDistribution scoreDistribution() {
+        List<ExerciseScoreDistribution> exerciseDistributions = new ArrayList<>(exercises.size());
+        for (int i = 0; i < exercises.size(); i++) {
+            exerciseDistributions.add(new ExerciseScoreDistribution(exercises.get(i).name(),
+                    ScoreHistogram.distribution(exerciseHistograms, i * ScoreHistogram.BUCKETS)));
+        }
+        return new CourseScoreDistribution(ScoreHistogram.distribution(courseHistogram, 0), exerciseDistributions);
+    }
+
+    /**
+     * Número de ejercicios del curso con al menos una calificación en el estado indicado.
+     */
+    int exercisesWithStatus(GradeStatus status) {
+        return exercisesWithStatus[slotOf(status)];
+    }
+
+    /**
+     * Estadísticas por ejercicio, en el orden de la lista de ejercicios.
+     */
+    List<ExerciseStatistics> exerciseStatistics() {
+        List<ExerciseStatistics> statistics = new ArrayList<>(exercises.size());
+        for (int i = 0; i < exercises.size(); i++) {
+            int base = i * STATUS_SLOTS;
+            int correct = exerciseCounts[base + CORRECT];
+            int incorrect = exerciseCounts[base + INCORRECT];
+            int pending = exerciseCounts[base + PENDING];
+            int notSubmitted = exerciseCounts[base + NOT_SUBMITTED];
+
+            statistics.add(new ExerciseStatistics(
+                    exercises.get(i).name(),
+                    correct + incorrect + pending + notSubmitted, // totalSubmissions
+                    correct,
+                    incorrect,
+                    pending,
+                    notSubmitted,
+                    average(exerciseScoreSums[i], exerciseScoreCounts[i])
+            ));
+        }
+        return statistics;
+    }
+
+    /**
+     * Rendimiento por estudiante, en el orden de la lista de estudiantes.
+     */
+    List<StudentPerformance> studentPerformance(int totalExercises) {
+        List<StudentPerformance> performance = new ArrayList<>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            EnrolledStudentSummary student = students.get(i);
+            // Un estudiante repetido en la lista comparte los conteos de su primera aparición
+            int index = studentIndex.get(student.id());
+            int base = index * STATUS_SLOTS;
+            int correct = studentCounts[base + CORRECT];
+            int incorrect = studentCounts[base + INCORRECT];
+            int pending = studentCounts[base + PENDING];
+            int notSubmitted = studentCounts[base + NOT_SUBMITTED];
+
+            double completionPercentage = totalExercises > 0 ?
+                    ((double) (correct + incorrect + pending) / totalExercises) * 100 : 0.0;
+
+            performance.add(new StudentPerformance(
+                    student.name(),
+                    student.email(),
+                    totalExercises,
+                    correct,
+                    incorrect,
+                    pending,
+                    notSubmitted,
+                    average(studentScoreSums[index], studentScoreCounts[index]),
+                    completionPercentage
+            ));
+        }
+        return performance;
+    }
+
+    private static void addCounters(int[] counts, int index, GradeCounters counters) {
+        int base = index * STATUS_SLOTS;
+        counts[base + CORRECT] += counters.getCorrectCount();
+        counts[base + INCORRECT] += counters.getIncorrectCount();
+        counts[base + PENDING] += counters.getPendingCount();
+        counts[base + NOT_SUBMITTED] += counters.getNotSubmittedCount();
+    }
+
+    private static Map<UUID, Integer> indexOf(List<UUID> ids) {
+        Map<UUID, Integer> index = new HashMap<>(ids.size() * 2);
+        for (int i = 0; i < ids.size(); i++) {
+            index.putIfAbsent(ids.get(i), i);
+        }
+        return index;
+    }
+
+    private static int slotOf(GradeStatus status) {
+        return switch (status) {
+            case CORRECT -> CORRECT;
+            case INCORRECT -> INCORRECT;
+            case PENDING -> PENDING;
+            case NOT_SUBMITTED -> NOT_SUBMITTED;
+        };
+    }
+
+    private static double average(long sum, int count) {
+        return count > 0 ? (double) sum / count : 0.0;
+    }
+}
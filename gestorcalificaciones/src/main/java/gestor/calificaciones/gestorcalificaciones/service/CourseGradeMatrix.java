@@ -0,0 +1,232 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.entities.StudentGrade;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Calificaciones de un curso en forma de matriz compacta (estudiante × ejercicio).
+ *
+ * <p>Estudiantes y ejercicios se numeran con índices densos y cada celda ocupa
+ * 11 bytes: el puntaje en un {@code short}, el estado en un {@code byte} y la
+ * fecha de entrega en un {@code long} (microsegundos desde
+ * {@link #SUBMITTED_AT_BASE}, la misma precisión que guarda PostgreSQL).
+ * Una entidad {@code StudentGrade} con sus UUID, fechas y proxies ocupa más de
+ * 200 bytes. La matriz es inmutable una vez construida; los cambios del curso
+ * producen una matriz nueva.</p>
+ */
+class CourseGradeMatrix {
+
+    static final LocalDateTime SUBMITTED_AT_BASE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final short NO_SCORE = Short.MIN_VALUE;
+    private static final byte NO_GRADE = 0;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final GradeStatus[] STATUSES = GradeStatus.values();
+    // Índices, referencias de los mapas y objetos de cabecera por estudiante o ejercicio (estimación)
+    private static final int BYTES_PER_ID = 96;
+
+    private final Map<UUID, Integer> studentIndex;
+    private final Map<UUID, Integer> exerciseIndex;
+    private final int exerciseCount;
+    private final short[] scores;
+    private final byte[] statuses;
+    private final long[] submittedAt;
+
+    private CourseGradeMatrix(Map<UUID, Integer> studentIndex, Map<UUID, Integer> exerciseIndex) {
+        this.studentIndex = studentIndex;
+        this.exerciseIndex = exerciseIndex;
+        this.exerciseCount = exerciseIndex.size();
+        int cells = studentIndex.size() * exerciseCount;
+        this.scores = new short[cells];
+        this.statuses = new byte[cells];
+        this.submittedAt = new long[cells];
+        Arrays.fill(scores, NO_SCORE);
+        Arrays.fill(submittedAt, NO_DATE);
+    }
+
+    /**
+     * Matriz de una sola fila con las calificaciones de un estudiante en el curso,
+     * para responder sin cargar la matriz completa.
+     */
+    static CourseGradeMatrix ofStudent(UUID studentId, List<StudentGrade> grades) {
+        Builder builder = new Builder(grades.size());
+        for (StudentGrade grade : grades) {
+            builder.add(studentId, grade.getExercise().getId(), grade.getScore(), grade.getStatus(),
+                    grade.getSubmittedAt());
+        }
+        return builder.build();
+    }
+
+    int studentCount() {
+        return studentIndex.size();
+    }
+
+    int exerciseCount() {
+        return exerciseCount;
+    }
+
+    /**
+     * Tamaño aproximado en memoria, usado por el presupuesto de la caché.
+     */
+    long estimatedBytes() {
+        return estimatedBytes(studentIndex.size(), exerciseCount);
+    }
+
+    /**
+     * Tamaño aproximado de una matriz con las dimensiones indicadas, para
+     * decidir si conviene cargarla antes de leer sus celdas.
+     */
+    static long estimatedBytes(long students, long exercises) {
+        return 11L * students * exercises + BYTES_PER_ID * (students + exercises);
+    }
+
+    /**
+     * Fila de calificaciones de un estudiante, vacía si no tiene calificaciones en el curso.
+     */
+    StudentRow studentRow(UUID studentId) {
+        Integer student = studentIndex.get(studentId);
+        return new StudentRow(student != null ? student * exerciseCount : -1);
+    }
+
+    /**
+     * Vista de las calificaciones de un estudiante sin copiar las celdas.
+     */
+    final class StudentRow {
+        private final int offset;
+
+        private StudentRow(int offset) {
+            this.offset = offset;
+        }
+
+        /**
+         * Estado de la calificación del ejercicio, o nulo si no tiene calificación.
+         */
+        GradeStatus status(UUID exerciseId) {
+            int cell = cell(exerciseId);
+            return cell >= 0 && statuses[cell] != NO_GRADE ? STATUSES[statuses[cell] - 1] : null;
+        }
+
+        Integer score(UUID exerciseId) {
+            int cell = cell(exerciseId);
+            return cell >= 0 && scores[cell] != NO_SCORE ? (int) scores[cell] : null;
+        }
+
+        LocalDateTime submittedAt(UUID exerciseId) {
+            int cell = cell(exerciseId);
+            return cell >= 0 && submittedAt[cell] != NO_DATE ? SUBMITTED_AT_BASE.plus(submittedAt[cell], ChronoUnit.MICROS) : null;
+        }
+
+        /**
+         * Número de calificaciones del estudiante con el estado indicado, en todos los ejercicios del curso.
+         */
+        int count(GradeStatus status) {
+            if (offset < 0) {
+                return 0;
+            }
+            byte code = (byte) (status.ordinal() + 1);
+            int count = 0;
+            for (int cell = offset; cell < offset + exerciseCount; cell++) {
+                if (statuses[cell] == code) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Promedio de los puntajes no nulos con el estado indicado, o 0 si no hay ninguno.
+         */
+        double averageScore(GradeStatus status) {
+            if (offset < 0) {
+                return 0.0;
+            }
+            byte code = (byte) (status.ordinal() + 1);
+            long sum = 0;
+            int count = 0;
+            for (int cell = offset; cell < offset + exerciseCount; cell++) {
+                if (statuses[cell] == code && scores[cell] != NO_SCORE) {
+                    sum += scores[cell];
+                    count++;
+                }
+            }
+            return count > 0 ? (double) sum / count : 0.0;
+        }
+
+        private int cell(UUID exerciseId) {
+            Integer exercise = exerciseIndex.get(exerciseId);
+            return offset >= 0 && exercise != null ? offset + exercise : -1;
+        }
+    }
+
+    /**
+     * Acumula celdas en arreglos primitivos que crecen según se leen, sin conocer
+     * de antemano el número de estudiantes y ejercicios, y construye la matriz.
+     */
+    static final class Builder {
+        private final Map<UUID, Integer> studentIndex = new HashMap<>();
+        private final Map<UUID, Integer> exerciseIndex = new HashMap<>();
+        private int[] studentCells;
+        private int[] exerciseCells;
+        private short[] cellScores;
+        private byte[] cellStatuses;
+        private long[] cellDates;
+        private int size;
+
+        Builder(int expectedCells) {
+            int capacity = Math.max(expectedCells, 1);
+            studentCells = new int[capacity];
+            exerciseCells = new int[capacity];
+            cellScores = new short[capacity];
+            cellStatuses = new byte[capacity];
+            cellDates = new long[capacity];
+        }
+
+        void add(UUID studentId, UUID exerciseId, Integer score, GradeStatus status, LocalDateTime submitted) {
+            if (size == studentCells.length) {
+                int capacity = size * 2;
+                studentCells = Arrays.copyOf(studentCells, capacity);
+                exerciseCells = Arrays.copyOf(exerciseCells, capacity);
+                cellScores = Arrays.copyOf(cellScores, capacity);
+                cellStatuses = Arrays.copyOf(cellStatuses, capacity);
+                cellDates = Arrays.copyOf(cellDates, capacity);
+            }
+            studentCells[size] = studentIndex.computeIfAbsent(studentId, id -> studentIndex.size());
+            exerciseCells[size] = exerciseIndex.computeIfAbsent(exerciseId, id -> exerciseIndex.size());
+            cellScores[size] = encodeScore(score);
+            cellStatuses[size] = (byte) (status.ordinal() + 1);
+            cellDates[size] = encodeDate(submitted);
+            size++;
+        }
+
+        CourseGradeMatrix build() {
+            CourseGradeMatrix matrix = new CourseGradeMatrix(studentIndex, exerciseIndex);
+            for (int i = 0; i < size; i++) {
+                int cell = studentCells[i] * matrix.exerciseCount + exerciseCells[i];
+                matrix.scores[cell] = cellScores[i];
+                matrix.statuses[cell] = cellStatuses[i];
+                matrix.submittedAt[cell] = cellDates[i];
+            }
+            return matrix;
+        }
+
+        // Los puntajes son enteros pequeños; uno fuera del rango de short se satura
+        private static short encodeScore(Integer score) {
+            if (score == null) {
+                return NO_SCORE;
+            }
+            return (short) Math.max(Short.MIN_VALUE + 1, Math.min(Short.MAX_VALUE, score));
+        }
+
+        private static long encodeDate(LocalDateTime submitted) {
+            return submitted != null ? ChronoUnit.MICROS.between(SUBMITTED_AT_BASE, submitted) : NO_DATE;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseContentCount;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Caché LRU de matrices de calificaciones por (curso, versión), acotada por un
+ * presupuesto de memoria ({@code gradebook.cache.max-memory}).
+ *
+ * <p>Una matriz contiene a todos los estudiantes del curso, así que solo
+ * conviene cargarla para cursos consultados con frecuencia: se carga, con una
+ * sola consulta leída por bloques, cuando el curso acumula
+ * {@code gradebook.cache.load-after-misses} consultas sin matriz en la misma
+ * versión. Mientras tanto quien consulta usa sus propias consultas por
+ * estudiante. Cuando el curso cambia, su versión cambia y la matriz anterior
+ * se descarta. Antes de cargarla se estima su tamaño con los estudiantes y
+ * ejercicios activos del curso; una matriz mayor que el presupuesto no se carga
+ * (o, si la estimación se quedó corta, no se guarda) ni se vuelve a intentar
+ * hasta que el curso cambie.</p>
+ */
+@Component
+@Slf4j
+class CourseGradeMatrixCache {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int MAX_TRACKED_MISSES = 1_000;
+
+    private static final String CELLS_SQL =
+            "SELECT sg.student_id, sg.exercise_id, sg.score, sg.status, sg.submitted_at " +
+            "FROM student_grades sg JOIN exercises e ON e.id = sg.exercise_id " +
+            "WHERE e.course_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CourseRepository courseRepository;
+    private final CourseVersionRegistry courseVersionRegistry;
+    private final long maxBytes;
+    private final int loadAfterMisses;
+    private final LinkedHashMap<CacheKey, CourseGradeMatrix> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Consultas sin matriz por (curso, versión); solo se recuerdan los cursos consultados más recientemente
+    private final LinkedHashMap<CacheKey, Integer> misses = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Integer> eldest) {
+            return size() > MAX_TRACKED_MISSES;
+        }
+    };
+    private long usedBytes;
+
+    CourseGradeMatrixCache(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           CourseRepository courseRepository, CourseVersionRegistry courseVersionRegistry,
+                           @Value("${gradebook.cache.max-memory:64MB}") DataSize maxMemory,
+                           @Value("${gradebook.cache.load-after-misses:3}") int loadAfterMisses) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Dentro de una transacción el driver de PostgreSQL lee el resultado por bloques de FETCH_SIZE filas
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.courseRepository = courseRepository;
+        this.courseVersionRegistry = courseVersionRegistry;
+        this.maxBytes = maxMemory.toBytes();
+        this.loadAfterMisses = Math.max(loadAfterMisses, 1);
+    }
+
+    /**
+     * Matriz de calificaciones del curso en su versión actual, si está en memoria
+     * o si esta consulta completa las necesarias para cargarla; vacío si quien
+     * consulta debe usar sus propias consultas. La versión se lee antes de
+     * cargar: si el curso cambia durante la carga, la matriz queda asociada a la
+     * versión anterior y no se vuelve a usar.
+     */
+    Optional<CourseGradeMatrix> find(UUID courseId) {
+        CacheKey key = new CacheKey(courseId, courseVersionRegistry.courseVersion(courseId));
+        synchronized (this) {
+            CourseGradeMatrix cached = entries.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+            // Solo la consulta que alcanza el umbral carga la matriz; las concurrentes siguen sin ella
+            int count = misses.merge(key, 1, Integer::sum);
+            if (count != loadAfterMisses) {
+                return Optional.empty();
+            }
+        }
+
+        CourseGradeMatrix matrix;
+        try {
+            long expectedCells = expectedCells(courseId);
+            if (expectedCells < 0) {
+                // La entrada de consultas sin matriz se conserva para no volver a estimarla en esta versión
+                return Optional.empty();
+            }
+            matrix = load(courseId, (int) expectedCells);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                misses.remove(key);
+            }
+            throw e;
+        }
+        put(key, matrix);
+        return Optional.of(matrix);
+    }
+
+    /**
+     * Celdas que tendría la matriz del curso según sus estudiantes y ejercicios
+     * activos, o -1 si su tamaño estimado supera el presupuesto de la caché.
+     */
+    private long expectedCells(UUID courseId) {
+        List<CourseContentCount> counts = courseRepository.countContentByCourseIds(List.of(courseId));
+        if (counts.isEmpty()) {
+            return 0;
+        }
+        long students = counts.get(0).activeStudents();
+        long exercises = counts.get(0).activeExercises();
+        long estimatedBytes = CourseGradeMatrix.estimatedBytes(students, exercises);
+        if (estimatedBytes > maxBytes) {
+            log.warn("La matriz de calificaciones del curso {} ({} estudiantes x {} ejercicios, ~{} KB) " +
+                    "supera el presupuesto de la caché; no se carga", courseId, students, exercises,
+                    estimatedBytes / 1024);
+            return -1;
+        }
+        return students * exercises;
+    }
+
+    private CourseGradeMatrix load(UUID courseId, int expectedCells) {
+        long startTime = System.currentTimeMillis();
+        CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(expectedCells);
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CELLS_SQL);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setObject(1, courseId);
+            return statement;
+        }, resultSet -> {
+            int score = resultSet.getInt(3);
+            Integer nullableScore = resultSet.wasNull() ? null : score;
+            Timestamp submitted = resultSet.getTimestamp(5);
+            builder.add(resultSet.getObject(1, UUID.class), resultSet.getObject(2, UUID.class), nullableScore,
+                    GradeStatus.valueOf(resultSet.getString(4)),
+                    submitted != null ? submitted.toLocalDateTime() : null);
+        }));
+        CourseGradeMatrix matrix = builder.build();
+        log.debug("Matriz de calificaciones del curso {} cargada: {} estudiantes x {} ejercicios, ~{} KB en {} ms",
+                courseId, matrix.studentCount(), matrix.exerciseCount(), matrix.estimatedBytes() / 1024,
+                System.currentTimeMillis() - startTime);
+        return matrix;
+    }
+
+    private synchronized void put(CacheKey key, CourseGradeMatrix matrix) {
+        // Las versiones anteriores del curso ya no se consultarán
+        Iterator<Map.Entry<CacheKey, CourseGradeMatrix>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<CacheKey, CourseGradeMatrix> entry = iterator.next();
+            if (entry.getKey().courseId().equals(key.courseId())) {
+                usedBytes -= entry.getValue().estimatedBytes();
+                iterator.remove();
+            }
+        }
+
+        if (matrix.estimatedBytes() > maxBytes) {
+            // La entrada de consultas sin matriz se conserva para no volver a cargarla en esta versión
+            log.warn("La matriz de calificaciones del curso {} (~{} KB) supera el presupuesto de la caché",
+                    key.courseId(), matrix.estimatedBytes() / 1024);
+            return;
+        }
+
+        entries.put(key, matrix);
+        usedBytes += matrix.estimatedBytes();
+        // Si la matriz se desaloja, el curso debe volver a acumular consultas para recargarla
+        misses.remove(key);
+        // Desalojar las matrices usadas hace más tiempo hasta volver al presupuesto
+        iterator = entries.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<CacheKey, CourseGradeMatrix> eldest = iterator.next();
+            usedBytes -= eldest.getValue().estimatedBytes();
+            iterator.remove();
+        }
+    }
+
+    private record CacheKey(UUID courseId, String version) {
+    }
+}
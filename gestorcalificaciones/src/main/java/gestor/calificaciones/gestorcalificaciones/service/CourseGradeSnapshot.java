@@ -0,0 +1,68 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.entities.StudentGrade;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeSnapshot;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Calificaciones existentes de un curso indexadas por (estudiante, ejercicio),
+ * cargadas una sola vez por carga de CSV para decidir qué celdas insertar,
+ * cuáles actualizar y cuáles no cambiaron.
+ */
+class CourseGradeSnapshot {
+
+    private final Map<GradeKey, StudentGradeSnapshot> grades = new HashMap<>();
+
+    static CourseGradeSnapshot load(StudentGradeRepository studentGradeRepository, UUID courseId) {
+        CourseGradeSnapshot snapshot = new CourseGradeSnapshot();
+        for (StudentGradeSnapshot grade : studentGradeRepository.findSnapshotsByCourseId(courseId)) {
+            snapshot.grades.putIfAbsent(new GradeKey(grade.studentId(), grade.exerciseId()), grade);
+        }
+        return snapshot;
+    }
+
+    StudentGradeSnapshot get(GradeKey key) {
+        return grades.get(key);
+    }
+
+    void put(StudentGrade grade) {
+        UUID studentId = grade.getStudent().getId();
+        UUID exerciseId = grade.getExercise().getId();
+        grades.put(new GradeKey(studentId, exerciseId), new StudentGradeSnapshot(
+                grade.getId(), studentId, exerciseId, grade.getScore(), grade.getStatus()));
+    }
+
+    /**
+     * Reemplaza las celdas de los estudiantes indicados por su estado en base de
+     * datos, sin volver a cargar el resto del curso.
+     */
+    void reload(StudentGradeRepository studentGradeRepository, UUID courseId, Set<UUID> studentIds,
+                Collection<UUID> exerciseIds) {
+        for (UUID studentId : studentIds) {
+            for (UUID exerciseId : exerciseIds) {
+                grades.remove(new GradeKey(studentId, exerciseId));
+            }
+        }
+        for (StudentGradeSnapshot grade : studentGradeRepository.findSnapshotsByCourseIdAndStudentIds(courseId, studentIds)) {
+            grades.putIfAbsent(new GradeKey(grade.studentId(), grade.exerciseId()), grade);
+        }
+    }
+
+    int size() {
+        return grades.size();
+    }
+
+    static boolean sameValues(StudentGradeSnapshot existing, StudentGrade grade) {
+        return existing.status() == grade.getStatus() && Objects.equals(existing.score(), grade.getScore());
+    }
+
+    record GradeKey(UUID studentId, UUID exerciseId) {
+    }
+}
@@ -0,0 +1,40 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseStatisticsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Caché LRU acotada de estadísticas por (curso, versión). Una entrada nunca
+ * queda obsoleta: cuando el curso cambia, su versión cambia y la entrada
+ * anterior deja de consultarse hasta que se desaloja.
+ */
+@Component
+class CourseStatisticsCache {
+
+    private final Map<CacheKey, CourseStatisticsResponse> entries;
+
+    CourseStatisticsCache(@Value("${statistics.cache.max-entries:200}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, CourseStatisticsResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized CourseStatisticsResponse get(UUID courseId, String version) {
+        return entries.get(new CacheKey(courseId, version));
+    }
+
+    synchronized void put(UUID courseId, String version, CourseStatisticsResponse statistics) {
+        entries.put(new CacheKey(courseId, version), statistics);
+    }
+
+    private record CacheKey(UUID courseId, String version) {
+    }
+}
@@ -10,8 +10,11 @@ import gestor.calificaciones.gestorcalificaciones.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,15 +22,34 @@ import java.util.stream.Collectors;
 public class CourseStatisticsService {
 
     private final CourseRepository courseRepository;
+    private final TeacherRepository teacherRepository;
+    private final CourseGradeStatsRepository courseGradeStatsRepository;
+    private final ExerciseGradeStatsRepository exerciseGradeStatsRepository;
+    private final StudentCourseGradeStatsRepository studentCourseGradeStatsRepository;
+    private final ExerciseScoreBucketRepository exerciseScoreBucketRepository;
     private final StudentGradeRepository studentGradeRepository;
+    private final CourseVersionRegistry courseVersionRegistry;
+    private final CourseStatisticsCache courseStatisticsCache;
     private final StudentCourseRepository studentCourseRepository;
     private final ExerciseRepository exerciseRepository;
 
+    /**
+     * Cursos activos del profesor con sus conteos, en un número fijo de consultas:
+     * los cursos, los conteos de todos ellos y el nombre del profesor.
+     */
     public List<CourseResponse> getTeacherCourses(UUID teacherId) {
         List<Course> courses = courseRepository.findActiveCoursesByTeacherId(teacherId);
+        if (courses.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<UUID, CourseContentCount> counts = countContent(courses);
+        String teacherName = teacherRepository.findById(teacherId)
+                .map(Teacher::getName)
+                .orElse(null);
         
         return courses.stream()
-                .map(this::mapToCourseResponse)
+                .map(course -> mapToCourseResponse(course, teacherName, counts.get(course.getId())))
                 .collect(Collectors.toList());
     }
 
@@ -35,53 +57,82 @@ public class CourseStatisticsService {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Curso no encontrado"));
         
-        return mapToCourseResponse(course);
+        return mapToCourseResponse(course, course.getTeacher().getName(),
+                countContent(List.of(course)).get(course.getId()));
+    }
+
+    /**
+     * Versión actual de los datos del curso, usada como ETag de sus estadísticas.
+     */
+    public String getCourseVersion(UUID courseId) {
+        return courseVersionRegistry.courseVersion(courseId);
     }
 
+    /**
+     * Versión actual de la lista de cursos del profesor, usada como ETag.
+     */
+    public String getTeacherCoursesVersion(UUID teacherId) {
+        return courseVersionRegistry.teacherVersion(teacherId);
+    }
+
+    /**
+     * Estadísticas del curso, servidas desde la caché mientras la versión del
+     * curso no cambie. La versión se lee antes de calcular: si el curso cambia
+     * durante el cálculo, el resultado queda asociado a la versión anterior y la
+     * siguiente consulta lo recalcula.
+     */
     public CourseStatisticsResponse getCourseStatistics(UUID courseId) {
+        String version = courseVersionRegistry.courseVersion(courseId);
+        CourseStatisticsResponse cached = courseStatisticsCache.get(courseId, version);
+        if (cached != null) {
+            return cached;
+        }
+        
+        CourseStatisticsResponse statistics = computeCourseStatistics(courseId);
+        courseStatisticsCache.put(courseId, version, statistics);
+        return statistics;
+    }
+
+    private CourseStatisticsResponse computeCourseStatistics(UUID courseId) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Curso no encontrado"));
         
-        List<Exercise> exercises = exerciseRepository.findActiveExercisesByCourseId(courseId);
-        List<StudentCourse> studentCourses = studentCourseRepository.findActiveByCourseId(courseId);
+        // Proyecciones ligeras: ningún ejercicio, inscripción ni calificación se hidrata como entidad
+        List<ExerciseSummary> exercises = exerciseRepository.findActiveSummariesByCourseId(courseId);
+        List<EnrolledStudentSummary> students = studentCourseRepository.findActiveStudentSummariesByCourseId(courseId);
         
         // Calcular estadísticas generales
-        int totalStudents = studentCourses.size();
+        int totalStudents = students.size();
         int totalExercises = exercises.size();
         
-        // OPTIMIZADO: Contar ejercicios únicos con al menos una entrega correcta/incorrecta
-        // En lugar de contar todas las entregas, contamos cuántos ejercicios tienen al menos una entrega con ese status
-        int correctSubmissions = studentGradeRepository
-                .countDistinctExercisesByCourseIdAndStatus(courseId, GradeStatus.CORRECT)
-                .intValue();
-        int incorrectSubmissions = studentGradeRepository
-                .countDistinctExercisesByCourseIdAndStatus(courseId, GradeStatus.INCORRECT)
-                .intValue();
+        // Las estadísticas se leen de las tablas mantenidas por las cargas, sin recorrer student_grades
+        CourseGradeAggregator aggregator = new CourseGradeAggregator(exercises, students);
+        GradeCounters courseTotals = courseGradeStatsRepository.findById(courseId)
+                .map(CourseGradeStats::getCounters)
+                .orElse(null);
+        if (courseTotals != null) {
+            exerciseGradeStatsRepository.findByCourseId(courseId)
+                    .forEach(stats -> aggregator.addExercise(stats.getExerciseId(), stats.getCounters()));
+            studentCourseGradeStatsRepository.findByCourseId(courseId)
+                    .forEach(stats -> aggregator.addStudent(stats.getStudentId(), stats.getCounters()));
+            exerciseScoreBucketRepository.findByCourseId(courseId)
+                    .forEach(bucket -> aggregator.addScoreBucket(bucket.getExerciseId(), bucket.getScore(),
+                            bucket.getGradeCount()));
+        } else {
+            courseTotals = aggregateGrades(courseId, aggregator);
+        }
+        
+        // Ejercicios únicos con al menos una entrega correcta/incorrecta
+        int correctSubmissions = aggregator.exercisesWithStatus(GradeStatus.CORRECT);
+        int incorrectSubmissions = aggregator.exercisesWithStatus(GradeStatus.INCORRECT);
         
         // Para pending y not_submitted mantenemos el conteo total ya que son estados diferentes
-        int pendingSubmissions = studentGradeRepository
-                .countByCourseIdAndStatus(courseId, GradeStatus.PENDING)
-                .intValue();
-        int notSubmittedCount = studentGradeRepository
-                .countByCourseIdAndStatus(courseId, GradeStatus.NOT_SUBMITTED)
-                .intValue();
+        int pendingSubmissions = courseTotals.getPendingCount();
+        int notSubmittedCount = courseTotals.getNotSubmittedCount();
         
-        // OPTIMIZADO: Calcular promedio usando consulta directa en BD
-        Double avgScore = studentGradeRepository.getAverageScoreByCourseIdOptimized(courseId);
-        double averageScore = avgScore != null ? avgScore : 0.0;
-        
-        // OPTIMIZADO: Cargar calificaciones con fetch join para evitar problema N+1
-        List<StudentGrade> allGrades = studentGradeRepository.findByCourseIdWithFetch(courseId);
-        
-        // Estadísticas por ejercicio
-        List<ExerciseStatistics> exerciseStats = exercises.stream()
-                .map(exercise -> calculateExerciseStatistics(exercise, allGrades))
-                .collect(Collectors.toList());
-        
-        // Rendimiento por estudiante
-        List<StudentPerformance> studentPerformance = studentCourses.stream()
-                .map(studentCourse -> calculateStudentPerformance(studentCourse, allGrades, totalExercises))
-                .collect(Collectors.toList());
+        double averageScore = courseTotals.averageScore();
+        List<ExerciseStatistics> exerciseStats = aggregator.exerciseStatistics();
+        List<StudentPerformance> studentPerformance = aggregator.studentPerformance(totalExercises);
         
         return CourseStatisticsResponse.builder()
                 .courseId(course.getId().toString())
@@ -95,98 +146,52 @@ public class CourseStatisticsService {
                 .averageScore(averageScore)
                 .exerciseStatistics(exerciseStats)
                 .studentPerformance(studentPerformance)
+                .distribution(aggregator.scoreDistribution())
                 .build();
     }
 
-    private CourseResponse mapToCourseResponse(Course course) {
-        int totalStudents = studentCourseRepository.findActiveByCourseId(course.getId()).size();
-        int totalExercises = exerciseRepository.findActiveExercisesByCourseId(course.getId()).size();
+    /**
+     * Acumula los conteos de un curso sin fila de estadísticas (anterior a las
+     * tablas de estadísticas y aún no reconstruido) agrupándolos desde sus
+     * calificaciones, sin escribir nada: la reconstrucción se hace al iniciar la
+     * aplicación o en la siguiente carga del curso. Devuelve los totales del curso.
+     */
+    private GradeCounters aggregateGrades(UUID courseId, CourseGradeAggregator aggregator) {
+        GradeStatisticsDelta groups = GradeStatisticsDelta.fromGroups(
+                studentGradeRepository.countByCourseIdGroupByExerciseAndStatus(courseId),
+                studentGradeRepository.countByCourseIdGroupByStudentAndStatus(courseId),
+                studentGradeRepository.countByCourseIdGroupByExerciseAndScore(courseId));
+        groups.getExercises().forEach(aggregator::addExercise);
+        groups.getStudents().forEach(aggregator::addStudent);
+        groups.getScoreHistograms().forEach((exerciseId, histogram) -> {
+            for (int score = 0; score < histogram.length; score++) {
+                if (histogram[score] != 0) {
+                    aggregator.addScoreBucket(exerciseId, score, histogram[score]);
+                }
+            }
+        });
+        return groups.getCourse();
+    }
+
+    private Map<UUID, CourseContentCount> countContent(List<Course> courses) {
+        return courseRepository.countContentByCourseIds(courses.stream().map(Course::getId).toList()).stream()
+                .collect(Collectors.toMap(CourseContentCount::courseId, Function.identity()));
+    }
+
+    private CourseResponse mapToCourseResponse(Course course, String teacherName, CourseContentCount counts) {
+        int totalStudents = counts != null ? counts.activeStudents().intValue() : 0;
+        int totalExercises = counts != null ? counts.activeExercises().intValue() : 0;
         
         return CourseResponse.builder()
                 .id(course.getId().toString())
                 .name(course.getName())
                 .description(course.getDescription())
                 .courseCode(course.getCourseCode())
-                .teacherName(course.getTeacher().getName())
+                .teacherName(teacherName)
                 .createdAt(course.getCreatedAt())
                 .isActive(course.getIsActive())
                 .totalStudents(totalStudents)
                 .totalExercises(totalExercises)
                 .build();
     }
-
-    private ExerciseStatistics calculateExerciseStatistics(Exercise exercise, List<StudentGrade> allGrades) {
-        // OPTIMIZADO: Filtrar una sola vez y calcular todas las estadísticas en una sola pasada
-        UUID exerciseId = exercise.getId();
-        int[] counts = new int[5]; // [total, correct, incorrect, pending, notSubmitted]
-        int[] scoreSum = new int[1];
-        int[] scoreCount = new int[1];
-        
-        allGrades.stream()
-                .filter(grade -> grade.getExercise().getId().equals(exerciseId))
-                .forEach(grade -> {
-                    counts[0]++; // total
-                    switch (grade.getStatus()) {
-                        case CORRECT -> counts[1]++;
-                        case INCORRECT -> counts[2]++;
-                        case PENDING -> counts[3]++;
-                        case NOT_SUBMITTED -> counts[4]++;
-                    }
-                    if (grade.getScore() != null) {
-                        scoreSum[0] += grade.getScore();
-                        scoreCount[0]++;
-                    }
-                });
-        
-        double averageScore = scoreCount[0] > 0 ? (double) scoreSum[0] / scoreCount[0] : 0.0;
-        
-        return new ExerciseStatistics(
-                exercise.getName(),
-                counts[0], // totalSubmissions
-                counts[1], // correctSubmissions
-                counts[2], // incorrectSubmissions
-                counts[3], // pendingSubmissions
-                counts[4], // notSubmittedCount
-                averageScore
-        );
-    }
-
-    private StudentPerformance calculateStudentPerformance(StudentCourse studentCourse, List<StudentGrade> allGrades, int totalExercises) {
-        // OPTIMIZADO: Calcular todas las estadísticas en una sola pasada
-        UUID studentId = studentCourse.getStudent().getId();
-        int[] counts = new int[4]; // [correct, incorrect, pending, notSubmitted]
-        int[] scoreSum = new int[1];
-        int[] scoreCount = new int[1];
-        
-        allGrades.stream()
-                .filter(grade -> grade.getStudent().getId().equals(studentId))
-                .forEach(grade -> {
-                    switch (grade.getStatus()) {
-                        case CORRECT -> counts[0]++;
-                        case INCORRECT -> counts[1]++;
-                        case PENDING -> counts[2]++;
-                        case NOT_SUBMITTED -> counts[3]++;
-                    }
-                    if (grade.getScore() != null) {
-                        scoreSum[0] += grade.getScore();
-                        scoreCount[0]++;
-                    }
-                });
-        
-        double averageScore = scoreCount[0] > 0 ? (double) scoreSum[0] / scoreCount[0] : 0.0;
-        double completionPercentage = totalExercises > 0 ? 
-                ((double) (counts[0] + counts[1] + counts[2]) / totalExercises) * 100 : 0.0;
-        
-        return new StudentPerformance(
-                studentCourse.getStudent().getName(),
-                studentCourse.getStudent().getEmail(),
-                totalExercises,
-                counts[0], // correctCount
-                counts[1], // incorrectCount
-                counts[2], // pendingCount
-                counts[3], // notSubmittedCount
-                averageScore,
-                completionPercentage
-        );
-    }
 }
@@ -0,0 +1,82 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versiones en memoria de los datos de cada curso y de la lista de cursos de
+ * cada profesor, usadas como clave de caché y como ETag.
+ *
+ * <p>Cada versión incluye el instante de arranque de la aplicación, de modo que
+ * los ETag emitidos antes de un reinicio nunca coinciden. Los cambios hechos
+ * dentro de una transacción incrementan la versión al confirmarse; si la
+ * transacción se revierte la versión no cambia. Las versiones son por
+ * instancia: con varias instancias, cada una valida solo sus propios ETag.</p>
+ */
+@Component
+@Slf4j
+public class CourseVersionRegistry {
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<UUID, AtomicLong> courseVersions = new ConcurrentHashMap<>();
+    private final Map<UUID, AtomicLong> teacherVersions = new ConcurrentHashMap<>();
+
+    public String courseVersion(UUID courseId) {
+        return epoch + "-" + current(courseVersions, courseId);
+    }
+
+    public String teacherVersion(UUID teacherId) {
+        return epoch + "-" + current(teacherVersions, teacherId);
+    }
+
+    /**
+     * Registra un cambio en las calificaciones, ejercicios o inscripciones de un
+     * curso, que también cambia la lista de cursos de su profesor.
+     */
+    public void courseChanged(UUID courseId, UUID teacherId) {
+        afterCommit(() -> {
+            counter(courseVersions, courseId).incrementAndGet();
+            if (teacherId != null) {
+                counter(teacherVersions, teacherId).incrementAndGet();
+            }
+            log.debug("Versión del curso {} incrementada", courseId);
+        });
+    }
+
+    /**
+     * Registra un cambio en la lista de cursos de un profesor.
+     */
+    public void teacherChanged(UUID teacherId) {
+        afterCommit(() -> counter(teacherVersions, teacherId).incrementAndGet());
+    }
+
+    private void afterCommit(Runnable bump) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump.run();
+                }
+            });
+        } else {
+            bump.run();
+        }
+    }
+
+    // Las lecturas no crean entradas: se consultan con ids arbitrarios recibidos en la ruta
+    private static long current(Map<UUID, AtomicLong> versions, UUID id) {
+        AtomicLong counter = versions.get(id);
+        return counter != null ? counter.get() : 0L;
+    }
+
+    private static AtomicLong counter(Map<UUID, AtomicLong> versions, UUID id) {
+        return versions.computeIfAbsent(id, key -> new AtomicLong());
+    }
+}
@@ -0,0 +1,23 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.enums.CsvUploadStage;
+
+/**
+ * Recibe el avance de una importación de CSV a medida que se procesan los bloques.
+ */
+public interface CsvImportProgress {
+
+    CsvImportProgress NONE = new CsvImportProgress() {
+        @Override
+        public void stageChanged(CsvUploadStage stage) {
+        }
+
+        @Override
+        public void rowsProcessed(int totalRows) {
+        }
+    };
+
+    void stageChanged(CsvUploadStage stage);
+
+    void rowsProcessed(int totalRows);
+}
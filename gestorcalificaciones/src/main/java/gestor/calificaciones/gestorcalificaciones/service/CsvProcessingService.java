@@ -1,35 +1,55 @@
 package gestor.calificaciones.gestorcalificaciones.service;
 
-import com.opencsv.CSVReader;
-import com.opencsv.CSVReaderBuilder;
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.exceptions.CsvException;
 import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
 import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
 import gestor.calificaciones.gestorcalificaciones.entities.Course;
+import gestor.calificaciones.gestorcalificaciones.entities.CsvImportCheckpoint;
+import gestor.calificaciones.gestorcalificaciones.entities.CsvImportRecord;
 import gestor.calificaciones.gestorcalificaciones.entities.Exercise;
 import gestor.calificaciones.gestorcalificaciones.entities.Student;
 import gestor.calificaciones.gestorcalificaciones.entities.StudentCourse;
 import gestor.calificaciones.gestorcalificaciones.entities.StudentGrade;
 import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
-import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import gestor.calificaciones.gestorcalificaciones.enums.CsvUploadStage;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeWriteMode;
+import gestor.calificaciones.gestorcalificaciones.enums.ImportCommitMode;
+import gestor.calificaciones.gestorcalificaciones.enums.Role;
 import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportCheckpointRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportRecordRepository;
 import gestor.calificaciones.gestorcalificaciones.repository.ExerciseRepository;
 import gestor.calificaciones.gestorcalificaciones.repository.StudentCourseRepository;
 import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeSnapshot;
 import gestor.calificaciones.gestorcalificaciones.repository.StudentRepository;
 import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,105 +64,575 @@ public class CsvProcessingService {
     private final StudentCourseRepository studentCourseRepository;
     private final TeacherRepository teacherRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
+    private final StudentGradeCopyWriter studentGradeCopyWriter;
+    private final ExecutorService csvNormalizationExecutor;
+    private final CsvImportRecordRepository csvImportRecordRepository;
+    private final CsvImportCheckpointRepository csvImportCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final GradeStatisticsService gradeStatisticsService;
+    private final CourseVersionRegistry courseVersionRegistry;
+
+    private static final int SEPARATOR_SAMPLE_SIZE = 2048;
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    private static final String DEFAULT_STUDENT_PASSWORD = "defaultPassword";
+    // Marca de fin de filas en la cola del pipeline de importación
+    private static final List<StudentData> END_OF_ROWS = Collections.emptyList();
+
+    // Hash BCrypt de la contraseña por defecto, compartido por las cuentas creadas desde CSV
+    private volatile String defaultPasswordHash;
+
+    @Value("${csv.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${csv.import.pipeline.queue-capacity:4}")
+    private int pipelineQueueCapacity;
+
+    @Value("${csv.import.grade-write-mode:jpa}")
+    private GradeWriteMode gradeWriteMode;
+
+    @Value("${csv.import.commit-mode:single}")
+    private ImportCommitMode importCommitMode;
 
-    @Transactional(rollbackFor = Exception.class)
     public CsvUploadResponse processCsvFile(MultipartFile file, CsvUploadRequest request, UUID teacherId) {
-        List<String> errors = new ArrayList<>();
+        // Validar archivo CSV
+        if (!isValidCsvFile(file)) {
+            List<String> errors = new ArrayList<>();
+            errors.add("El archivo debe ser un CSV válido");
+            return createErrorResponse(errors);
+        }
         
+        return processCsvFile(file.getOriginalFilename(), file, request, teacherId, CsvImportProgress.NONE);
+    }
+
+    /**
+     * Importa un CSV desde cualquier origen reabrible (archivo subido, archivo en
+     * disco, ...) notificando el avance por bloques.
+     *
+     * <p>Si el curso ya tiene una importación exitosa, primero se calcula el
+     * SHA-256 del archivo: cuando coincide se devuelve el resultado guardado sin
+     * abrir una transacción de escritura. En caso contrario la importación se
+     * ejecuta en su propia transacción, o en una por bloque en el modo
+     * {@link ImportCommitMode#CHUNKED}, y registra el hash del archivo.</p>
+     */
+    public CsvUploadResponse processCsvFile(String fileName, InputStreamSource source, CsvUploadRequest request,
+                                            UUID teacherId, CsvImportProgress progress) {
+        // Validar archivo CSV
+        if (!isCsvFileName(fileName)) {
+            List<String> errors = new ArrayList<>();
+            errors.add("El archivo debe ser un CSV válido");
+            return createErrorResponse(errors);
+        }
+        
+        String contentHash = null;
         try {
-            // Validar archivo CSV
-            if (!isValidCsvFile(file)) {
-                errors.add("El archivo debe ser un CSV válido");
-                return createErrorResponse(errors);
+            Optional<CsvImportRecord> lastImport = csvImportRecordRepository.findByCourseCode(request.getCourseCode());
+            // El modo por bloques necesita el hash de antemano para encontrar su checkpoint
+            if (lastImport.isPresent() || importCommitMode == ImportCommitMode.CHUNKED) {
+                contentHash = computeContentHash(source);
+            }
+            if (lastImport.isPresent() && lastImport.get().getContentHash().equals(contentHash)) {
+                log.info("Archivo {} idéntico a la última importación del curso {}; se omite la importación",
+                        fileName, request.getCourseCode());
+                return createDuplicateResponse(lastImport.get());
             }
+        } catch (IOException e) {
+            log.error("Error calculando el hash del archivo CSV", e);
+            throw new RuntimeException("Error procesando CSV: " + e.getMessage(), e);
+        }
+        
+        if (importCommitMode == ImportCommitMode.CHUNKED) {
+            return importCsvInChunks(fileName, source, request, teacherId, progress, contentHash);
+        }
+        return transactionTemplate.execute(status -> importCsv(fileName, source, request, teacherId, progress));
+    }
 
-            // Leer y parsear CSV
-            List<String[]> csvData = readCsvFile(file);
-            if (csvData.isEmpty()) {
-                errors.add("El archivo CSV está vacío");
-                return createErrorResponse(errors);
+    private CsvUploadResponse importCsv(String fileName, InputStreamSource source, CsvUploadRequest request,
+                                        UUID teacherId, CsvImportProgress progress) {
+        List<String> errors = new ArrayList<>();
+        
+        try {
+            // Leer el CSV en streaming: solo se mantiene en memoria un bloque de filas a la vez.
+            // El hash del contenido se calcula en la misma pasada.
+            MessageDigest contentDigest = newContentDigest();
+            try (BufferedInputStream input = new BufferedInputStream(
+                         new DigestInputStream(source.getInputStream(), contentDigest));
+                 GradebookCsvTokenizer tokenizer = openTokenizer(input)) {
+
+                String[] header = tokenizer.readHeader();
+                if (header == null) {
+                    errors.add("El archivo CSV está vacío");
+                    return createErrorResponse(errors);
+                }
+                log.info("Número de columnas en header: {}", header.length);
+                progress.stageChanged(CsvUploadStage.PREPARING);
+
+                // Obtener o crear curso
+                Course course = getOrCreateCourse(request, teacherId);
+                // Las estadísticas se actualizan por diferencias: deben partir de las calificaciones existentes
+                gradeStatisticsService.ensureCourse(course.getId());
+                
+                // Crear ejercicios a partir del header
+                List<String> exerciseNames = extractExerciseNames(header);
+                List<Exercise> exercises = createExercises(exerciseNames, course);
+                
+                // Procesar calificaciones de estudiantes por bloques de tamaño fijo
+                ImportContext context = createImportContext(course, exercises);
+                progress.stageChanged(CsvUploadStage.IMPORTING);
+                int totalStudents = importRows(tokenizer, chunk -> flushChunk(chunk, context), 0, progress);
+                
+                // Calcular estadísticas
+                int totalExercises = exercises.size();
+                
+                log.info("CSV procesado exitosamente: {} estudiantes, {} ejercicios ({} calificaciones nuevas, {} actualizadas, {} sin cambios)",
+                        totalStudents, totalExercises, context.getInsertedGrades(), context.getUpdatedGrades(),
+                        context.getUnchangedGrades());
+                
+                CsvUploadResponse response = CsvUploadResponse.builder()
+                        .message("Archivo CSV procesado exitosamente")
+                        .courseId(course.getId().toString())
+                        .courseName(course.getName())
+                        .totalStudents(totalStudents)
+                        .totalExercises(totalExercises)
+                        .insertedGrades(context.getInsertedGrades())
+                        .updatedGrades(context.getUpdatedGrades())
+                        .unchangedGrades(context.getUnchangedGrades())
+                        .errors(errors)
+                        .success(true)
+                        .build();
+                recordImport(request.getCourseCode(), fileName, HexFormat.of().formatHex(contentDigest.digest()),
+                        response);
+                return response;
             }
+                    
+        } catch (Exception e) {
+            log.error("Error procesando archivo CSV", e);
+            errors.add("Error procesando archivo: " + e.getMessage());
+            // Re-lanzar la excepción para que la transacción de la importación se revierta
+            throw new RuntimeException("Error procesando CSV: " + e.getMessage(), e);
+        }
+    }
 
-            // Obtener o crear curso
-            Course course = getOrCreateCourse(request, teacherId);
-            
-            // Procesar datos del CSV
-            List<String> exerciseNames = extractExerciseNames(csvData.get(0));
-            List<StudentData> studentsData = extractStudentsData(csvData);
+    /**
+     * Crea, en una sola transacción y sin importar calificaciones, los
+     * estudiantes de los CSV indicados que aún no existen.
+     *
+     * <p>Las cargas que importan varios CSV en paralelo la llaman antes de
+     * repartir los archivos: así un estudiante presente en varios archivos se
+     * crea una sola vez, con un solo email, y cada importación lo encuentra ya
+     * creado en lugar de crearlo por su cuenta.</p>
+     *
+     * @return Número de estudiantes creados
+     * @throws IOException Si no se pudo leer alguno de los archivos
+     */
+    public int provisionStudents(Collection<? extends InputStreamSource> sources) throws IOException {
+        try {
+            Integer created = transactionTemplate.execute(status -> {
+                StudentNameIndex studentIndex = new StudentNameIndex(studentRepository);
+                StudentEmailAllocator emailAllocator = new StudentEmailAllocator(studentRepository);
+                int total = 0;
+                for (InputStreamSource source : sources) {
+                    total += provisionStudents(source, studentIndex, emailAllocator);
+                }
+                return total;
+            });
+            return created != null ? created : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private int provisionStudents(InputStreamSource source, StudentNameIndex studentIndex,
+                                  StudentEmailAllocator emailAllocator) {
+        try (BufferedInputStream input = new BufferedInputStream(source.getInputStream());
+             GradebookCsvTokenizer tokenizer = openTokenizer(input)) {
+            if (tokenizer.readHeader() == null) {
+                return 0;
+            }
             
-            // Crear ejercicios
-            List<Exercise> exercises = createExercises(exerciseNames, course);
+            int created = 0;
+            List<StudentData> chunk = new ArrayList<>(chunkSize);
+            GradebookCsvTokenizer.Row row;
+            while ((row = tokenizer.nextRow()) != null) {
+                chunk.add(createStudentData(row));
+                if (chunk.size() >= chunkSize) {
+                    created += provisionChunk(chunk, studentIndex, emailAllocator);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                created += provisionChunk(chunk, studentIndex, emailAllocator);
+            }
+            return created;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int provisionChunk(List<StudentData> chunk, StudentNameIndex studentIndex,
+                               StudentEmailAllocator emailAllocator) {
+        studentIndex.preload(chunk.stream()
+                .map(StudentData::getName)
+                .collect(Collectors.toList()));
+        int created = provisionNewStudents(chunk, studentIndex, emailAllocator);
+        entityManager.flush();
+        entityManager.clear();
+        return created;
+    }
+
+    /**
+     * Importación con una transacción por bloque. Cada bloque se confirma junto
+     * con el checkpoint de la carga; si un bloque falla, sus filas se reintentan
+     * una a una y las que vuelven a fallar se informan como errores de fila sin
+     * detener la carga. Si la importación se interrumpe, volver a cargar el mismo
+     * archivo continúa después de la última fila confirmada.
+     */
+    private CsvUploadResponse importCsvInChunks(String fileName, InputStreamSource source, CsvUploadRequest request,
+                                                UUID teacherId, CsvImportProgress progress, String contentHash) {
+        List<String> errors = new ArrayList<>();
+        
+        try (BufferedInputStream input = new BufferedInputStream(source.getInputStream());
+             GradebookCsvTokenizer tokenizer = openTokenizer(input)) {
             
-            // Procesar calificaciones de estudiantes
-            processStudentGrades(studentsData, exercises, course);
+            String[] header = tokenizer.readHeader();
+            if (header == null) {
+                errors.add("El archivo CSV está vacío");
+                return createErrorResponse(errors);
+            }
+            log.info("Número de columnas en header: {}", header.length);
+            progress.stageChanged(CsvUploadStage.PREPARING);
             
-            // Calcular estadísticas
-            int totalStudents = studentsData.size();
-            int totalExercises = exercises.size();
+            ChunkedImport chunkedImport = transactionTemplate.execute(
+                    status -> startChunkedImport(fileName, header, request, teacherId, contentHash));
+            progress.stageChanged(CsvUploadStage.IMPORTING);
+            importRows(tokenizer, chunk -> commitChunk(chunk, chunkedImport), chunkedImport.getImportedRows(), progress);
             
-            log.info("CSV procesado exitosamente: {} estudiantes, {} ejercicios", totalStudents, totalExercises);
+            ImportContext context = chunkedImport.getContext();
+            List<String> rowErrors = chunkedImport.getRowErrors();
+            log.info("CSV procesado por bloques: {} estudiantes, {} ejercicios, {} filas con errores ({} calificaciones nuevas, {} actualizadas, {} sin cambios)",
+                    chunkedImport.getImportedRows(), chunkedImport.getExercises().size(), rowErrors.size(),
+                    context.getInsertedGrades(), context.getUpdatedGrades(), context.getUnchangedGrades());
             
-            return CsvUploadResponse.builder()
-                    .message("Archivo CSV procesado exitosamente")
-                    .courseId(course.getId().toString())
-                    .courseName(course.getName())
-                    .totalStudents(totalStudents)
-                    .totalExercises(totalExercises)
-                    .errors(errors)
+            CsvUploadResponse response = CsvUploadResponse.builder()
+                    .message(rowErrors.isEmpty()
+                            ? "Archivo CSV procesado exitosamente"
+                            : "Archivo CSV procesado con " + rowErrors.size() + " filas con errores")
+                    .courseId(chunkedImport.getCourse().getId().toString())
+                    .courseName(chunkedImport.getCourse().getName())
+                    .totalStudents(chunkedImport.getImportedRows())
+                    .totalExercises(chunkedImport.getExercises().size())
+                    .insertedGrades(context.getInsertedGrades())
+                    .updatedGrades(context.getUpdatedGrades())
+                    .unchangedGrades(context.getUnchangedGrades())
+                    .errors(new ArrayList<>(rowErrors))
                     .success(true)
                     .build();
-                    
+            
+            transactionTemplate.executeWithoutResult(status -> {
+                csvImportCheckpointRepository.deleteById(chunkedImport.getCheckpointId());
+                // Con filas fallidas, volver a cargar el mismo archivo debe reintentarlas
+                if (rowErrors.isEmpty()) {
+                    recordImport(request.getCourseCode(), fileName, contentHash, response);
+                }
+            });
+            return response;
+            
         } catch (Exception e) {
-            log.error("Error procesando archivo CSV", e);
-            errors.add("Error procesando archivo: " + e.getMessage());
-            // Re-lanzar la excepción para que Spring maneje el rollback correctamente
+            log.error("Error procesando archivo CSV por bloques; volver a cargar el mismo archivo reanuda la importación", e);
             throw new RuntimeException("Error procesando CSV: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Crea el curso y los ejercicios y prepara el checkpoint de la carga: si hay
+     * uno del mismo archivo se reanuda desde él, si no se reinicia.
+     */
+    private ChunkedImport startChunkedImport(String fileName, String[] header, CsvUploadRequest request,
+                                             UUID teacherId, String contentHash) {
+        Course course = getOrCreateCourse(request, teacherId);
+        gradeStatisticsService.ensureCourse(course.getId());
+        List<Exercise> exercises = createExercises(extractExerciseNames(header), course);
+        
+        // Los bloques se confirman por separado: la última importación registrada deja de describir el curso
+        csvImportRecordRepository.findByCourseCode(request.getCourseCode())
+                .ifPresent(csvImportRecordRepository::delete);
+        
+        CsvImportCheckpoint checkpoint = csvImportCheckpointRepository.findByCourseCode(request.getCourseCode())
+                .orElseGet(CsvImportCheckpoint::new);
+        if (checkpoint.getId() != null && contentHash.equals(checkpoint.getContentHash())) {
+            log.info("Reanudando la importación del curso {} después de la fila {} ({} estudiantes ya importados)",
+                    request.getCourseCode(), checkpoint.getLastRowNumber(), checkpoint.getImportedRows());
+        } else {
+            checkpoint.setCourseCode(request.getCourseCode());
+            checkpoint.setContentHash(contentHash);
+            checkpoint.setLastRowNumber(0);
+            checkpoint.setImportedRows(0);
+            checkpoint.setInsertedGrades(0);
+            checkpoint.setUpdatedGrades(0);
+            checkpoint.setUnchangedGrades(0);
+            checkpoint.setRowErrors(null);
+            checkpoint.setCreatedAt(LocalDateTime.now());
+        }
+        checkpoint.setFileName(fileName);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpoint = csvImportCheckpointRepository.save(checkpoint);
+        
+        ImportContext context = createImportContext(course, exercises);
+        context.restoreGradeCounts(new GradeCounts(checkpoint.getInsertedGrades(), checkpoint.getUpdatedGrades(),
+                checkpoint.getUnchangedGrades()));
+        List<String> rowErrors = new ArrayList<>();
+        if (checkpoint.getRowErrors() != null && !checkpoint.getRowErrors().isEmpty()) {
+            rowErrors.addAll(Arrays.asList(checkpoint.getRowErrors().split("\n")));
+        }
+        return new ChunkedImport(checkpoint.getId(), course, exercises, context, checkpoint.getLastRowNumber(),
+                checkpoint.getImportedRows(), rowErrors);
+    }
+
+    private int commitChunk(List<StudentData> chunk, ChunkedImport chunkedImport) {
+        // Las filas ya confirmadas en un intento anterior se saltan
+        List<StudentData> pending = chunk.stream()
+                .filter(row -> row.getRowNumber() > chunkedImport.getResumeAfterRow())
+                .collect(Collectors.toList());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        
+        GradeCounts countsBefore = chunkedImport.getContext().gradeCounts();
+        int lastRowNumber = pending.get(pending.size() - 1).getRowNumber();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writeChunk(pending, chunkedImport.getContext());
+                saveCheckpoint(chunkedImport, lastRowNumber, pending.size());
+            });
+            chunkedImport.committed(pending.size());
+            return pending.size();
+        } catch (RuntimeException e) {
+            log.warn("Error confirmando el bloque de filas {}-{}; se reintenta fila por fila: {}",
+                    pending.get(0).getRowNumber(), lastRowNumber, e.getMessage());
+            // La transacción se revirtió: descartar el estado en memoria del bloque fallido
+            restoreAfterRollback(pending, chunkedImport.getContext(), countsBefore);
+            return retryRowByRow(pending, chunkedImport);
+        }
+    }
+
+    private int retryRowByRow(List<StudentData> rows, ChunkedImport chunkedImport) {
+        int imported = 0;
+        for (StudentData row : rows) {
+            GradeCounts countsBefore = chunkedImport.getContext().gradeCounts();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    writeChunk(List.of(row), chunkedImport.getContext());
+                    saveCheckpoint(chunkedImport, row.getRowNumber(), 1);
+                });
+                chunkedImport.committed(1);
+                imported++;
+            } catch (RuntimeException e) {
+                String error = "Fila " + row.getRowNumber() + " (" + row.getName() + "): " + rootCauseMessage(e);
+                log.warn("Error importando la fila {}: {}", row.getRowNumber(), error);
+                chunkedImport.getRowErrors().add(error);
+                restoreAfterRollback(List.of(row), chunkedImport.getContext(), countsBefore);
+            }
+        }
+        return imported;
+    }
+
+    // Se ejecuta dentro de la transacción del bloque, después de escribir sus filas
+    private void saveCheckpoint(ChunkedImport chunkedImport, int lastRowNumber, int committedRows) {
+        CsvImportCheckpoint checkpoint = csvImportCheckpointRepository.findById(chunkedImport.getCheckpointId())
+                .orElseThrow(() -> new IllegalStateException("Checkpoint de importación no encontrado"));
+        GradeCounts counts = chunkedImport.getContext().gradeCounts();
+        checkpoint.setLastRowNumber(lastRowNumber);
+        checkpoint.setImportedRows(chunkedImport.getImportedRows() + committedRows);
+        checkpoint.setInsertedGrades(counts.inserted());
+        checkpoint.setUpdatedGrades(counts.updated());
+        checkpoint.setUnchangedGrades(counts.unchanged());
+        checkpoint.setRowErrors(String.join("\n", chunkedImport.getRowErrors()));
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void writeChunk(List<StudentData> chunk, ImportContext context) {
+        try {
+            flushChunk(chunk, context);
+        } catch (SQLException e) {
+            throw new RuntimeException("Error escribiendo calificaciones: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Devuelve el contexto de la carga al estado confirmado después de revertir
+     * las filas indicadas. Solo esas filas modificaron el contexto (estudiantes
+     * creados, inscripciones y celdas del snapshot), así que solo sus
+     * estudiantes se vuelven a consultar, en lugar de recargar todo el curso.
+     * Los emails asignados en la transacción revertida siguen marcados como
+     * ocupados; a lo sumo, un estudiante posterior recibe otro sufijo.
+     */
+    private void restoreAfterRollback(List<StudentData> rows, ImportContext context, GradeCounts counts) {
+        StudentNameIndex studentIndex = context.getStudentIndex();
+        List<String> names = rows.stream()
+                .map(StudentData::getName)
+                .collect(Collectors.toList());
+        
+        // Incluye los estudiantes creados en la transacción revertida, que ya no existen
+        Set<UUID> touchedStudentIds = new HashSet<>();
+        for (String name : names) {
+            studentIndex.find(name).ifPresent(student -> touchedStudentIds.add(student.getId()));
+        }
+        studentIndex.forget(names);
+        studentIndex.preload(names);
+        for (String name : names) {
+            studentIndex.find(name).ifPresent(student -> touchedStudentIds.add(student.getId()));
+        }
+        
+        if (!touchedStudentIds.isEmpty()) {
+            UUID courseId = context.getCourse().getId();
+            context.getEnrolledStudentIds().removeAll(touchedStudentIds);
+            context.getEnrolledStudentIds().addAll(
+                    studentCourseRepository.findStudentIdsByCourseIdAndStudentIds(courseId, touchedStudentIds));
+            if (context.getGradeSnapshot() != null) {
+                context.getGradeSnapshot().reload(studentGradeRepository, courseId, touchedStudentIds,
+                        context.getExercises().stream().map(Exercise::getId).collect(Collectors.toList()));
+            }
+        }
+        context.restoreGradeCounts(counts);
+    }
+
+    private String rootCauseMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
     private boolean isValidCsvFile(MultipartFile file) {
         return file != null && 
                !file.isEmpty() && 
-               file.getOriginalFilename() != null && 
-               file.getOriginalFilename().toLowerCase().endsWith(".csv");
+               isCsvFileName(file.getOriginalFilename());
+    }
+
+    private boolean isCsvFileName(String fileName) {
+        return fileName != null && fileName.toLowerCase().endsWith(".csv");
     }
 
-    private List<String[]> readCsvFile(MultipartFile file) throws IOException, CsvException {
-        // Leer el contenido completo del archivo en memoria para detectar el separador
-        // y luego poder leerlo múltiples veces si es necesario
-        byte[] fileBytes = file.getBytes();
+    private GradebookCsvTokenizer openTokenizer(BufferedInputStream input) throws IOException {
+        // Leer solo un prefijo pequeño para detectar el separador y devolverlo al stream
+        input.mark(SEPARATOR_SAMPLE_SIZE);
+        byte[] sample = input.readNBytes(SEPARATOR_SAMPLE_SIZE);
+        input.reset();
         
-        // Detectar el separador desde el contenido
-        char separator = detectSeparator(fileBytes);
+        char separator = detectSeparator(sample);
         log.info("Separador detectado: '{}'", separator);
         
-        // Crear un nuevo InputStream desde los bytes
-        java.io.ByteArrayInputStream byteArrayInputStream = new java.io.ByteArrayInputStream(fileBytes);
-        
-        CSVReader reader = new CSVReaderBuilder(new InputStreamReader(byteArrayInputStream, "UTF-8"))
-                .withSkipLines(0)
-                .withCSVParser(new CSVParserBuilder()
-                        .withSeparator(separator)
-                        .withQuoteChar('"')  // Manejar valores con comillas
-                        .build())
-                .build();
+        return new GradebookCsvTokenizer(new InputStreamReader(input, StandardCharsets.UTF_8), separator);
+    }
+
+    /**
+     * Importa las filas del CSV como un pipeline: un hilo lee las filas y envía
+     * cada bloque a normalizar en paralelo; el hilo actual, dueño de la
+     * transacción, es el único escritor y persiste los bloques en orden. La cola
+     * acotada entre ambos limita cuántos bloques hay en memoria a la vez.
+     */
+    private int importRows(GradebookCsvTokenizer tokenizer, ChunkWriter writer, int alreadyImported,
+                           CsvImportProgress progress) throws Exception {
+        BlockingQueue<CompletableFuture<List<StudentData>>> pendingChunks =
+                new ArrayBlockingQueue<>(pipelineQueueCapacity);
+        Thread parser = Thread.ofVirtual()
+                .name("csv-parser")
+                .start(() -> parseRows(tokenizer, pendingChunks));
         
+        int totalStudents = alreadyImported;
         try {
-            List<String[]> rows = reader.readAll();
-            log.info("Total de filas leídas del CSV: {}", rows.size());
-            if (!rows.isEmpty()) {
-                log.info("Número de columnas en header: {}", rows.get(0).length);
+            while (true) {
+                List<StudentData> chunk = awaitChunk(pendingChunks.take());
+                if (chunk == END_OF_ROWS) {
+                    break;
+                }
+                totalStudents += writer.write(chunk);
+                progress.rowsProcessed(totalStudents);
             }
-            return rows;
         } finally {
-            reader.close();
+            // Si el escritor falla, detener al lector bloqueado en la cola
+            parser.interrupt();
+        }
+        return totalStudents;
+    }
+
+    private void parseRows(GradebookCsvTokenizer tokenizer,
+                           BlockingQueue<CompletableFuture<List<StudentData>>> pendingChunks) {
+        try {
+            try {
+                long startTime = System.nanoTime();
+                int totalRows = 0;
+                List<GradebookCsvTokenizer.Row> rows = new ArrayList<>(chunkSize);
+                GradebookCsvTokenizer.Row row;
+                while ((row = tokenizer.nextRow()) != null) {
+                    rows.add(row);
+                    totalRows++;
+                    if (rows.size() >= chunkSize) {
+                        pendingChunks.put(normalizeAsync(rows));
+                        rows = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!rows.isEmpty()) {
+                    pendingChunks.put(normalizeAsync(rows));
+                }
+                pendingChunks.put(CompletableFuture.completedFuture(END_OF_ROWS));
+                log.info("CSV tokenizado: {} filas en {} ms", totalRows,
+                        (System.nanoTime() - startTime) / 1_000_000);
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Throwable e) {
+                pendingChunks.put(CompletableFuture.failedFuture(e));
+            }
+        } catch (InterruptedException e) {
+            // El escritor abandonó la importación
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<List<StudentData>> normalizeAsync(List<GradebookCsvTokenizer.Row> rows) {
+        return CompletableFuture.supplyAsync(() -> rows.stream()
+                .map(this::createStudentData)
+                .collect(Collectors.toList()), csvNormalizationExecutor);
+    }
+
+    private List<StudentData> awaitChunk(CompletableFuture<List<StudentData>> pendingChunk) throws Exception {
+        try {
+            return pendingChunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
         }
     }
+
+    private ImportContext createImportContext(Course course, List<Exercise> exercises) {
+        return new ImportContext(course, exercises,
+                new StudentNameIndex(studentRepository), new StudentEmailAllocator(studentRepository),
+                new HashSet<>(studentCourseRepository.findStudentIdsByCourseId(course.getId())),
+                gradeWriteMode == GradeWriteMode.JPA
+                        ? CourseGradeSnapshot.load(studentGradeRepository, course.getId())
+                        : null);
+    }
+
+    /**
+     * Persiste un bloque de filas y libera el contexto de persistencia para que
+     * la memoria usada no crezca con el tamaño del archivo.
+     */
+    private int flushChunk(List<StudentData> chunk, ImportContext context) throws SQLException {
+        int processed = chunk.size();
+        processStudentGrades(chunk, context);
+        entityManager.flush();
+        entityManager.clear();
+        log.debug("Bloque de {} estudiantes persistido", processed);
+        return processed;
+    }
     
     private char detectSeparator(byte[] fileBytes) {
         try {
             // Convertir bytes a string para analizar
-            String sample = new String(fileBytes, 0, Math.min(fileBytes.length, 2048), "UTF-8");
+            String sample = new String(fileBytes, 0, Math.min(fileBytes.length, SEPARATOR_SAMPLE_SIZE), StandardCharsets.UTF_8);
             
             // Contar comas y punto y comas en la primera línea
             int commaCount = 0;
@@ -192,25 +682,9 @@ public class CsvProcessingService {
                 .collect(Collectors.toList());
     }
 
-    private List<StudentData> extractStudentsData(List<String[]> csvData) {
-        List<StudentData> students = csvData.stream()
-                .skip(1) // Saltar el header
-                .filter(row -> row.length > 0 && !row[0].trim().isEmpty())
-                .map(this::createStudentData)
-                .collect(Collectors.toList());
-        
-        log.info("Total estudiantes extraídos: {}", students.size());
-        return students;
-    }
-
-    private StudentData createStudentData(String[] row) {
-        if (row.length == 0) {
-            log.warn("Fila vacía encontrada");
-            return new StudentData("", new ArrayList<>());
-        }
-        
-        // Limpiar el nombre del estudiante
-        String studentName = row[0].trim()
+    private StudentData createStudentData(GradebookCsvTokenizer.Row row) {
+        // Limpiar el nombre del estudiante; las calificaciones ya vienen clasificadas del tokenizador
+        String studentName = row.name().trim()
                 .replaceAll("^\"|\"$", "") // Remover comillas dobles
                 .replaceAll("\\s+", " ") // Limpiar espacios extra
                 .trim();
@@ -234,24 +708,11 @@ public class CsvProcessingService {
             }
         }
         
-        // Obtener las calificaciones, ignorando "Total Grade" si está al final
-        List<String> grades = new ArrayList<>();
-        for (int i = 1; i < row.length; i++) {
-            String grade = row[i] != null ? row[i].trim() : "";
-            // Remover comillas dobles si existen
-            grade = grade.replaceAll("^\"|\"$", "");
-            
-            // Ignorar si es "Total Grade" o "NA"
-            if (!grade.equalsIgnoreCase("Total Grade") && 
-                !grade.equalsIgnoreCase("\"Total Grade\"") &&
-                !grade.equalsIgnoreCase("NA")) {
-                grades.add(grade);
-            }
-        }
+        List<ParsedGrade> grades = row.grades();
         
         log.debug("Estudiante parseado: '{}' - Número de calificaciones: {}", studentName, grades.size());
         
-        return new StudentData(studentName, grades);
+        return new StudentData(row.rowNumber(), studentName, grades);
     }
 
     private Course getOrCreateCourse(CsvUploadRequest request, UUID teacherId) {
@@ -282,220 +743,333 @@ public class CsvProcessingService {
         course.setTeacher(teacher);
         course.setIsActive(true);
         
-        return courseRepository.save(course);
+        Course savedCourse = courseRepository.save(course);
+        courseVersionRegistry.teacherChanged(teacherId);
+        return savedCourse;
     }
 
     private List<Exercise> createExercises(List<String> exerciseNames, Course course) {
-        List<Exercise> exercises = new ArrayList<>();
+        // Cargar todos los ejercicios del curso en una sola consulta, indexados por nombre
+        Map<String, Exercise> exercisesByName = new HashMap<>();
+        for (Exercise exercise : exerciseRepository.findByCourseId(course.getId())) {
+            exercisesByName.putIfAbsent(exercise.getName(), exercise);
+        }
         
+        // Crear los que faltan, respetando el orden de las columnas del CSV
+        List<Exercise> newExercises = new ArrayList<>();
         for (String exerciseName : exerciseNames) {
-            Optional<Exercise> existingExercise = exerciseRepository
-                    .findByCourseIdAndName(course.getId(), exerciseName);
-            
-            if (existingExercise.isPresent()) {
-                exercises.add(existingExercise.get());
-            } else {
+            if (!exercisesByName.containsKey(exerciseName)) {
                 Exercise exercise = new Exercise();
                 exercise.setName(exerciseName);
                 exercise.setDescription("Ejercicio: " + exerciseName);
                 exercise.setMaxScore(100);
                 exercise.setCourse(course);
                 exercise.setIsActive(true);
-                Exercise saved = exerciseRepository.save(exercise);
-                exercises.add(saved);
+                exercisesByName.put(exerciseName, exercise);
+                newExercises.add(exercise);
             }
         }
         
+        if (!newExercises.isEmpty()) {
+            log.info("Creando {} ejercicios nuevos en batch", newExercises.size());
+            exerciseRepository.saveAll(newExercises);
+            courseVersionRegistry.courseChanged(course.getId(), course.getTeacher().getId());
+        }
+        
+        List<Exercise> exercises = exerciseNames.stream()
+                .map(exercisesByName::get)
+                .collect(Collectors.toList());
+        
         log.info("Total ejercicios procesados: {}", exercises.size());
         return exercises;
     }
 
-    private void processStudentGrades(List<StudentData> studentsData, List<Exercise> exercises, Course course) {
+    private void processStudentGrades(List<StudentData> studentsData, ImportContext context) throws SQLException {
+        List<Exercise> exercises = context.getExercises();
+        Course course = context.getCourse();
         log.info("Procesando calificaciones de {} estudiantes con {} ejercicios", 
                 studentsData.size(), exercises.size());
         
-        // Obtener todos los estudiantes inscritos en el curso para buscar emails
-        List<StudentCourse> enrolledStudents = studentCourseRepository.findActiveByCourseId(course.getId());
-        log.info("Estudiantes ya inscritos en el curso: {}", enrolledStudents.size());
+        // Cargar en una sola consulta los estudiantes existentes con los nombres del bloque
+        StudentNameIndex studentIndex = context.getStudentIndex();
+        studentIndex.preload(studentsData.stream()
+                .map(StudentData::getName)
+                .collect(Collectors.toList()));
+        
+        // Crear en bloque los estudiantes que aún no existen
+        provisionNewStudents(studentsData, studentIndex, context.getEmailAllocator());
         
-        // Primero, crear/obtener todos los estudiantes de una vez
-        List<StudentGrade> gradesToSave = new ArrayList<>();
+        // Valor deseado por celda; si el CSV repite una celda, prevalece la última
+        Map<CourseGradeSnapshot.GradeKey, StudentGrade> sheetGrades = new LinkedHashMap<>();
+        List<StudentCourse> newEnrollments = new ArrayList<>();
         
         for (StudentData studentData : studentsData) {
-            // Obtener o crear estudiante, buscando email en inscritos
-            Student student = getOrCreateStudent(studentData.getName(), course, enrolledStudents);
+            // Todos los estudiantes del bloque están ya en el índice de nombres de la carga
+            Student student = studentIndex.find(studentData.getName())
+                    .orElseThrow(() -> new IllegalStateException("Estudiante no resuelto: " + studentData.getName()));
             
             // Vincular estudiante al curso si no está vinculado
-            linkStudentToCourse(student, course);
+            if (context.getEnrolledStudentIds().add(student.getId())) {
+                newEnrollments.add(createEnrollment(student, course));
+            }
             
             // Procesar calificaciones
             for (int i = 0; i < exercises.size() && i < studentData.getGrades().size(); i++) {
-                String gradeValue = studentData.getGrades().get(i);
+                ParsedGrade gradeValue = studentData.getGrades().get(i);
                 Exercise exercise = exercises.get(i);
                 
                 StudentGrade grade = processStudentGradeForBatch(student, exercise, gradeValue);
                 if (grade != null) {
-                    gradesToSave.add(grade);
+                    sheetGrades.put(new CourseGradeSnapshot.GradeKey(student.getId(), exercise.getId()), grade);
                 }
             }
         }
         
-        // Guardar todas las calificaciones en batch
-        if (!gradesToSave.isEmpty()) {
-            log.info("Guardando {} calificaciones en batch", gradesToSave.size());
-            studentGradeRepository.saveAll(gradesToSave);
+        // Guardar todas las inscripciones nuevas en batch
+        if (!newEnrollments.isEmpty()) {
+            log.info("Inscribiendo {} estudiantes nuevos en el curso", newEnrollments.size());
+            studentCourseRepository.saveAll(newEnrollments);
         }
         
+        // Insertar o actualizar solo las calificaciones nuevas o modificadas
+        if (gradeWriteMode == GradeWriteMode.COPY) {
+            copyGrades(sheetGrades, context);
+        } else {
+            upsertGrades(sheetGrades, context);
+        }
+        // Las estadísticas en caché del curso dejan de ser válidas al confirmar el bloque
+        courseVersionRegistry.courseChanged(course.getId(), course.getTeacher().getId());
+        
         log.info("Procesamiento de calificaciones completado");
     }
 
-    private Student getOrCreateStudent(String studentName, Course course, List<StudentCourse> enrolledStudents) {
-        log.debug("Buscando/creando estudiante con nombre: [{}]", studentName);
+    /**
+     * Envía las calificaciones del bloque por COPY; la base de datos decide qué
+     * celdas insertar, actualizar o dejar sin cambios.
+     */
+    private void copyGrades(Map<CourseGradeSnapshot.GradeKey, StudentGrade> sheetGrades, ImportContext context)
+            throws SQLException {
+        // Los estudiantes e inscripciones nuevos deben existir antes de la fusión (claves foráneas)
+        entityManager.flush();
+        StudentGradeCopyWriter.CopyResult result = studentGradeCopyWriter.write(sheetGrades.values());
+        context.addGradeCounts(result.inserted(), result.updated(), result.unchanged());
         
-        // Limitar longitud del nombre a 255 caracteres y crear variable final
-        final String finalStudentName;
-        if (studentName.length() > 255) {
-            finalStudentName = studentName.substring(0, 255).trim();
-            log.warn("Nombre truncado a 255 caracteres");
-        } else {
-            finalStudentName = studentName;
+        Map<CourseGradeSnapshot.GradeKey, StudentGradeSnapshot> previous = new HashMap<>();
+        for (StudentGradeSnapshot grade : result.previous()) {
+            previous.put(new CourseGradeSnapshot.GradeKey(grade.studentId(), grade.exerciseId()), grade);
+        }
+        GradeStatisticsDelta delta = new GradeStatisticsDelta();
+        for (Map.Entry<CourseGradeSnapshot.GradeKey, StudentGrade> entry : sheetGrades.entrySet()) {
+            recordGradeChange(delta, previous.get(entry.getKey()), entry.getValue());
         }
+        gradeStatisticsService.apply(context.getCourse().getId(), delta);
+    }
+
+    /**
+     * Compara las calificaciones del bloque con las existentes del curso y escribe
+     * únicamente las celdas nuevas o modificadas.
+     */
+    private void upsertGrades(Map<CourseGradeSnapshot.GradeKey, StudentGrade> sheetGrades, ImportContext context) {
+        CourseGradeSnapshot snapshot = context.getGradeSnapshot();
+        List<StudentGrade> gradesToInsert = new ArrayList<>();
+        Map<UUID, StudentGrade> gradesToUpdate = new HashMap<>();
+        GradeStatisticsDelta delta = new GradeStatisticsDelta();
+        int unchanged = 0;
         
-        // 1. Buscar estudiante por nombre exacto (case-insensitive)
-        final String searchName = finalStudentName;
-        List<Student> existingStudents = studentRepository.findAll().stream()
-                .filter(s -> s.getName().equalsIgnoreCase(searchName))
-                .collect(Collectors.toList());
+        for (Map.Entry<CourseGradeSnapshot.GradeKey, StudentGrade> entry : sheetGrades.entrySet()) {
+            StudentGradeSnapshot existing = snapshot.get(entry.getKey());
+            recordGradeChange(delta, existing, entry.getValue());
+            if (existing == null) {
+                gradesToInsert.add(entry.getValue());
+            } else if (CourseGradeSnapshot.sameValues(existing, entry.getValue())) {
+                unchanged++;
+            } else {
+                gradesToUpdate.put(existing.id(), entry.getValue());
+            }
+        }
         
-        if (!existingStudents.isEmpty()) {
-            log.debug("Estudiante existente encontrado: {}", existingStudents.get(0).getName());
-            return existingStudents.get(0);
+        // Guardar todas las calificaciones nuevas en batch
+        if (!gradesToInsert.isEmpty()) {
+            log.info("Guardando {} calificaciones nuevas en batch", gradesToInsert.size());
+            studentGradeRepository.saveAll(gradesToInsert).forEach(snapshot::put);
         }
         
-        // 2. Buscar email del estudiante en los inscritos del curso
-        String email = null;
-        for (StudentCourse sc : enrolledStudents) {
-            Student enrolledStudent = sc.getStudent();
-            if (enrolledStudent.getName().equalsIgnoreCase(finalStudentName)) {
-                email = enrolledStudent.getEmail();
-                log.debug("Email encontrado en inscritos del curso: {}", email);
-                break;
+        // Actualizar las calificaciones modificadas, cargadas en una sola consulta
+        if (!gradesToUpdate.isEmpty()) {
+            log.info("Actualizando {} calificaciones modificadas", gradesToUpdate.size());
+            for (StudentGrade current : studentGradeRepository.findAllById(gradesToUpdate.keySet())) {
+                StudentGrade sheetGrade = gradesToUpdate.get(current.getId());
+                current.setScore(sheetGrade.getScore());
+                current.setStatus(sheetGrade.getStatus());
+                current.setSubmittedAt(sheetGrade.getSubmittedAt());
+                snapshot.put(current);
             }
         }
         
-        // 3. Si no se encontró email, generar uno válido
-        if (email == null || email.isEmpty()) {
-            // Generar email: convertir nombre a email válido
-            String baseEmail = finalStudentName.toLowerCase()
-                    .replaceAll("[^a-z0-9\\s]", "") // Eliminar caracteres especiales excepto espacios
-                    .trim()
-                    .replaceAll("\\s+", "."); // Reemplazar espacios con puntos
-            
-            // Limitar longitud del email a 255 caracteres (incluyendo @estudiante.com = 15 caracteres)
-            int maxLength = 240; // 255 - 15 para "@estudiante.com"
-            if (baseEmail.length() > maxLength) {
-                baseEmail = baseEmail.substring(0, maxLength);
-            }
-            
-            email = baseEmail + "@estudiante.com";
-            
-            // Verificar que el email no exista ya
-            int suffix = 1;
-            String baseEmailForSuffix = baseEmail;
-            while (studentRepository.findByEmail(email).isPresent()) {
-                String suffixStr = String.valueOf(suffix);
-                int maxWithSuffix = maxLength - suffixStr.length() - 1; // -1 para el punto
-                if (maxWithSuffix < 0) maxWithSuffix = 0;
-                baseEmailForSuffix = baseEmailForSuffix.substring(0, Math.min(baseEmailForSuffix.length(), maxWithSuffix));
-                email = baseEmailForSuffix + "." + suffixStr + "@estudiante.com";
-                suffix++;
-                if (suffix > 1000) { // Prevenir loop infinito
-                    email = UUID.randomUUID().toString().substring(0, 8) + "@estudiante.com";
-                    break;
-                }
+        context.addGradeCounts(gradesToInsert.size(), gradesToUpdate.size(), unchanged);
+        gradeStatisticsService.apply(context.getCourse().getId(), delta);
+    }
+
+    /**
+     * Registra en las estadísticas el cambio de una celda: las calificaciones
+     * modificadas restan sus valores anteriores y suman los nuevos.
+     */
+    private void recordGradeChange(GradeStatisticsDelta delta, StudentGradeSnapshot existing, StudentGrade grade) {
+        if (existing != null && CourseGradeSnapshot.sameValues(existing, grade)) {
+            return;
+        }
+        UUID studentId = grade.getStudent().getId();
+        UUID exerciseId = grade.getExercise().getId();
+        if (existing != null) {
+            delta.remove(studentId, exerciseId, existing.status(), existing.score());
+        }
+        delta.add(studentId, exerciseId, grade.getStatus(), grade.getScore());
+    }
+
+    /**
+     * Crea con un único {@code saveAll} los estudiantes del bloque que no existen.
+     * Todas las cuentas nuevas comparten el hash de la contraseña por defecto, que
+     * se calcula una sola vez en lugar de ejecutar BCrypt por cada estudiante.
+     */
+    private int provisionNewStudents(List<StudentData> studentsData, StudentNameIndex studentIndex,
+                                     StudentEmailAllocator emailAllocator) {
+        long start = System.nanoTime();
+        
+        Map<String, String> newStudentNames = new LinkedHashMap<>();
+        for (StudentData studentData : studentsData) {
+            String name = studentData.getName();
+            if (studentIndex.find(name).isEmpty()) {
+                newStudentNames.putIfAbsent(StudentNameIndex.normalize(name), name);
             }
-            
-            log.debug("Email generado: {}", email);
+        }
+        if (newStudentNames.isEmpty()) {
+            return 0;
         }
         
-        // Crear nuevo estudiante
-        Student student = new Student();
-        student.setName(finalStudentName);
-        student.setEmail(email);
-        student.setPassword(passwordEncoder.encode("defaultPassword")); // Hasheando la contraseña
-        student.setRole(gestor.calificaciones.gestorcalificaciones.enums.Role.STUDENT);
-        student.setCode(UUID.randomUUID().toString().substring(0, 8));
+        // Consultar en una sola consulta los emails que pueden colisionar con los estudiantes nuevos
+        emailAllocator.preload(newStudentNames.values().stream()
+                .map(StudentEmailAllocator::baseLocalPart)
+                .collect(Collectors.toSet()));
         
-        log.debug("Creando nuevo estudiante: nombre={}, email={}", finalStudentName, email);
-        return studentRepository.save(student);
+        String passwordHash = getDefaultPasswordHash();
+        List<Student> newStudents = new ArrayList<>(newStudentNames.size());
+        for (String name : newStudentNames.values()) {
+            Student student = new Student();
+            student.setName(name);
+            student.setEmail(emailAllocator.allocate(StudentEmailAllocator.baseLocalPart(name)));
+            student.setPassword(passwordHash);
+            student.setRole(Role.STUDENT);
+            student.setCode(UUID.randomUUID().toString().substring(0, 8));
+            log.debug("Creando nuevo estudiante: nombre={}, email={}", name, student.getEmail());
+            newStudents.add(student);
+        }
+        
+        studentRepository.saveAll(newStudents).forEach(studentIndex::add);
+        log.info("Provisionados {} estudiantes nuevos en {} ms",
+                newStudents.size(), (System.nanoTime() - start) / 1_000_000);
+        return newStudents.size();
     }
 
-    private void linkStudentToCourse(Student student, Course course) {
-        if (!studentCourseRepository.existsByStudentIdAndCourseId(student.getId(), course.getId())) {
-            StudentCourse studentCourse = new StudentCourse();
-            studentCourse.setStudent(student);
-            studentCourse.setCourse(course);
-            studentCourse.setIsActive(true);
-            studentCourseRepository.save(studentCourse);
+    private String getDefaultPasswordHash() {
+        String hash = defaultPasswordHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(DEFAULT_STUDENT_PASSWORD);
+            defaultPasswordHash = hash;
         }
+        return hash;
+    }
+
+    private StudentCourse createEnrollment(Student student, Course course) {
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setStudent(student);
+        studentCourse.setCourse(course);
+        studentCourse.setIsActive(true);
+        return studentCourse;
     }
 
-    private StudentGrade processStudentGradeForBatch(Student student, Exercise exercise, String gradeValue) {
+    private StudentGrade processStudentGradeForBatch(Student student, Exercise exercise, ParsedGrade gradeValue) {
         log.debug("Procesando calificación: estudiante={}, ejercicio={}, valor={}", 
                 student.getName(), exercise.getName(), gradeValue);
         
         StudentGrade studentGrade = new StudentGrade();
         studentGrade.setStudent(student);
         studentGrade.setExercise(exercise);
+        studentGrade.setStatus(gradeValue.status());
+        studentGrade.setScore(gradeValue.score());
         
-        // Procesar el valor de la calificación
-        GradeStatus status = determineGradeStatus(gradeValue);
-        studentGrade.setStatus(status);
-        
-        if (status == GradeStatus.CORRECT || status == GradeStatus.INCORRECT) {
-            try {
-                int score = Integer.parseInt(gradeValue.trim());
-                studentGrade.setScore(score);
-                studentGrade.setSubmittedAt(LocalDateTime.now());
-                log.debug("Calificación numérica preparada: {}", score);
-            } catch (NumberFormatException e) {
-                log.warn("No se pudo parsear la calificación: {}", gradeValue);
-            }
-        } else if (status == GradeStatus.NOT_SUBMITTED) {
-            // Si no está entregado, no se establece fecha ni score
-            studentGrade.setScore(null);
-            studentGrade.setSubmittedAt(null);
-            log.debug("Ejercicio no entregado");
+        // Solo las calificaciones numéricas tienen fecha de entrega
+        if (gradeValue.score() != null) {
+            studentGrade.setSubmittedAt(LocalDateTime.now());
         }
         
         return studentGrade;
     }
 
-    private GradeStatus determineGradeStatus(String gradeValue) {
-        if (gradeValue == null || gradeValue.trim().isEmpty()) {
-            return GradeStatus.NOT_SUBMITTED;
-        }
-        
-        String trimmedValue = gradeValue.trim();
-        
-        if (trimmedValue.equalsIgnoreCase("Not Submitted")) {
-            return GradeStatus.NOT_SUBMITTED;
+    /**
+     * Guarda el hash y el resultado como la última importación exitosa del curso,
+     * dentro de la misma transacción que la importación.
+     */
+    private void recordImport(String courseCode, String fileName, String contentHash, CsvUploadResponse response) {
+        CsvImportRecord record = csvImportRecordRepository.findByCourseCode(courseCode)
+                .orElseGet(CsvImportRecord::new);
+        record.setCourseCode(courseCode);
+        record.setCourseId(UUID.fromString(response.getCourseId()));
+        record.setCourseName(response.getCourseName());
+        record.setFileName(fileName);
+        record.setContentHash(contentHash);
+        record.setTotalStudents(response.getTotalStudents());
+        record.setTotalExercises(response.getTotalExercises());
+        record.setInsertedGrades(response.getInsertedGrades());
+        record.setUpdatedGrades(response.getUpdatedGrades());
+        record.setUnchangedGrades(response.getUnchangedGrades());
+        record.setImportedAt(LocalDateTime.now());
+        csvImportRecordRepository.save(record);
+    }
+
+    private String computeContentHash(InputStreamSource source) throws IOException {
+        long startTime = System.currentTimeMillis();
+        byte[] hash;
+        if (source instanceof MappedFileResource mappedFile) {
+            hash = mappedFile.digest(CONTENT_HASH_ALGORITHM);
+        } else {
+            MessageDigest digest = newContentDigest();
+            try (InputStream input = source.getInputStream()) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            hash = digest.digest();
         }
-        
+        log.debug("Hash del archivo calculado en {} ms", System.currentTimeMillis() - startTime);
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private MessageDigest newContentDigest() {
         try {
-            int score = Integer.parseInt(trimmedValue);
-            if (score >= 80) {
-                return GradeStatus.CORRECT;
-            } else if (score > 0) {
-                return GradeStatus.INCORRECT;
-            } else {
-                return GradeStatus.INCORRECT;
-            }
-        } catch (NumberFormatException e) {
-            return GradeStatus.PENDING;
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo de resumen no disponible: " + CONTENT_HASH_ALGORITHM, e);
         }
     }
 
+    private CsvUploadResponse createDuplicateResponse(CsvImportRecord record) {
+        return CsvUploadResponse.builder()
+                .message("El archivo ya fue procesado en la última carga del curso; no hay cambios")
+                .courseId(record.getCourseId().toString())
+                .courseName(record.getCourseName())
+                .totalStudents(record.getTotalStudents())
+                .totalExercises(record.getTotalExercises())
+                .insertedGrades(record.getInsertedGrades())
+                .updatedGrades(record.getUpdatedGrades())
+                .unchangedGrades(record.getUnchangedGrades())
+                .errors(new ArrayList<>())
+                .success(true)
+                .duplicate(true)
+                .build();
+    }
+
     private CsvUploadResponse createErrorResponse(List<String> errors) {
         return CsvUploadResponse.builder()
                 .message("Error procesando archivo CSV")
@@ -504,17 +1078,113 @@ public class CsvProcessingService {
                 .build();
     }
 
+    // Estado compartido por todos los bloques de una misma carga
+    private static class ImportContext {
+        private final Course course;
+        private final List<Exercise> exercises;
+        private final StudentNameIndex studentIndex;
+        private final StudentEmailAllocator emailAllocator;
+        private final Set<UUID> enrolledStudentIds;
+        private final CourseGradeSnapshot gradeSnapshot;
+        private int insertedGrades;
+        private int updatedGrades;
+        private int unchangedGrades;
+        
+        public ImportContext(Course course, List<Exercise> exercises,
+                             StudentNameIndex studentIndex, StudentEmailAllocator emailAllocator,
+                             Set<UUID> enrolledStudentIds, CourseGradeSnapshot gradeSnapshot) {
+            this.course = course;
+            this.exercises = exercises;
+            this.studentIndex = studentIndex;
+            this.emailAllocator = emailAllocator;
+            this.enrolledStudentIds = enrolledStudentIds;
+            this.gradeSnapshot = gradeSnapshot;
+        }
+        
+        public void addGradeCounts(int inserted, int updated, int unchanged) {
+            insertedGrades += inserted;
+            updatedGrades += updated;
+            unchangedGrades += unchanged;
+        }
+        
+        public GradeCounts gradeCounts() {
+            return new GradeCounts(insertedGrades, updatedGrades, unchangedGrades);
+        }
+        
+        public void restoreGradeCounts(GradeCounts counts) {
+            insertedGrades = counts.inserted();
+            updatedGrades = counts.updated();
+            unchangedGrades = counts.unchanged();
+        }
+        
+        public Course getCourse() { return course; }
+        public List<Exercise> getExercises() { return exercises; }
+        public StudentNameIndex getStudentIndex() { return studentIndex; }
+        public StudentEmailAllocator getEmailAllocator() { return emailAllocator; }
+        public Set<UUID> getEnrolledStudentIds() { return enrolledStudentIds; }
+        public CourseGradeSnapshot getGradeSnapshot() { return gradeSnapshot; }
+        public int getInsertedGrades() { return insertedGrades; }
+        public int getUpdatedGrades() { return updatedGrades; }
+        public int getUnchangedGrades() { return unchangedGrades; }
+    }
+
+    private record GradeCounts(int inserted, int updated, int unchanged) {
+    }
+
+    // Destino de cada bloque normalizado; devuelve cuántos estudiantes se importaron
+    @FunctionalInterface
+    private interface ChunkWriter {
+        int write(List<StudentData> chunk) throws Exception;
+    }
+
+    // Estado de una importación por bloques entre transacciones
+    private static class ChunkedImport {
+        private final UUID checkpointId;
+        private final Course course;
+        private final List<Exercise> exercises;
+        private final int resumeAfterRow;
+        private final List<String> rowErrors;
+        private final ImportContext context;
+        private int importedRows;
+        
+        public ChunkedImport(UUID checkpointId, Course course, List<Exercise> exercises, ImportContext context,
+                             int resumeAfterRow, int importedRows, List<String> rowErrors) {
+            this.checkpointId = checkpointId;
+            this.course = course;
+            this.exercises = exercises;
+            this.context = context;
+            this.resumeAfterRow = resumeAfterRow;
+            this.importedRows = importedRows;
+            this.rowErrors = rowErrors;
+        }
+        
+        public void committed(int rows) {
+            importedRows += rows;
+        }
+        
+        public UUID getCheckpointId() { return checkpointId; }
+        public Course getCourse() { return course; }
+        public List<Exercise> getExercises() { return exercises; }
+        public int getResumeAfterRow() { return resumeAfterRow; }
+        public List<String> getRowErrors() { return rowErrors; }
+        public ImportContext getContext() { return context; }
+        public int getImportedRows() { return importedRows; }
+    }
+
     // Clase auxiliar para manejar datos de estudiantes
     private static class StudentData {
+        private final int rowNumber;
         private final String name;
-        private final List<String> grades;
+        private final List<ParsedGrade> grades;
         
-        public StudentData(String name, List<String> grades) {
+        public StudentData(int rowNumber, String name, List<ParsedGrade> grades) {
+            this.rowNumber = rowNumber;
             this.name = name;
             this.grades = grades;
         }
         
+        public int getRowNumber() { return rowNumber; }
         public String getName() { return name; }
-        public List<String> getGrades() { return grades; }
+        public List<ParsedGrade> getGrades() { return grades; }
     }
 }
@@ -0,0 +1,86 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadJobResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.enums.CsvUploadStage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Estado de una carga de CSV asíncrona. Lo actualiza el worker que la procesa
+ * y lo consultan las peticiones de seguimiento.
+ */
+class CsvUploadJob implements CsvImportProgress {
+
+    private final UUID id;
+    private final UUID teacherId;
+    private final String fileName;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile CsvUploadStage stage = CsvUploadStage.QUEUED;
+    private volatile int rowsProcessed;
+    private volatile CsvUploadResponse result;
+    private volatile LocalDateTime finishedAt;
+
+    CsvUploadJob(UUID id, UUID teacherId, String fileName) {
+        this.id = id;
+        this.teacherId = teacherId;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public void stageChanged(CsvUploadStage stage) {
+        this.stage = stage;
+    }
+
+    @Override
+    public void rowsProcessed(int totalRows) {
+        this.rowsProcessed = totalRows;
+    }
+
+    void complete(CsvUploadResponse response) {
+        this.result = response;
+        if (response.getErrors() != null) {
+            errors.addAll(response.getErrors());
+        }
+        finish(response.isSuccess() ? CsvUploadStage.COMPLETED : CsvUploadStage.FAILED);
+    }
+
+    void fail(String error) {
+        errors.add(error);
+        finish(CsvUploadStage.FAILED);
+    }
+
+    private void finish(CsvUploadStage finalStage) {
+        this.finishedAt = LocalDateTime.now();
+        this.stage = finalStage;
+    }
+
+    boolean isFinishedBefore(LocalDateTime limit) {
+        LocalDateTime finished = finishedAt;
+        return finished != null && finished.isBefore(limit);
+    }
+
+    UUID getId() { return id; }
+    UUID getTeacherId() { return teacherId; }
+    String getFileName() { return fileName; }
+
+    CsvUploadJobResponse toResponse() {
+        CsvUploadStage currentStage = stage;
+        return CsvUploadJobResponse.builder()
+                .jobId(id.toString())
+                .fileName(fileName)
+                .stage(currentStage.name())
+                .stageDescription(currentStage.getDescription())
+                .rowsProcessed(rowsProcessed)
+                .errors(new ArrayList<>(errors))
+                .result(result)
+                .createdAt(createdAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadJobResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cargas de CSV asíncronas: el archivo se guarda en disco, se le asigna un id
+ * de trabajo y un pool acotado de workers lo importa, liberando el hilo de la
+ * petición de inmediato.
+ */
+@Service
+@Slf4j
+public class CsvUploadJobService {
+
+    private final CsvProcessingService csvProcessingService;
+    private final ThreadPoolTaskExecutor csvUploadExecutor;
+    private final Map<UUID, CsvUploadJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${csv.upload.spool-dir:${java.io.tmpdir}/gestor-uploads}")
+    private String spoolDir;
+
+    @Value("${csv.upload.async.retention-minutes:60}")
+    private long retentionMinutes;
+
+    public CsvUploadJobService(CsvProcessingService csvProcessingService,
+                               @Qualifier("csvUploadExecutor") ThreadPoolTaskExecutor csvUploadExecutor) {
+        this.csvProcessingService = csvProcessingService;
+        this.csvUploadExecutor = csvUploadExecutor;
+    }
+
+    /**
+     * Guarda el archivo en disco y encola su importación.
+     *
+     * @throws IOException Si no se pudo guardar el archivo
+     * @throws TaskRejectedException Si la cola de trabajos está llena
+     */
+    public CsvUploadJobResponse submit(MultipartFile file, CsvUploadRequest request, UUID teacherId) throws IOException {
+        evictFinishedJobs();
+
+        UUID jobId = UUID.randomUUID();
+        Path spoolFile = spoolPath(jobId);
+        file.transferTo(spoolFile);
+
+        try {
+            return submit(jobId, file.getOriginalFilename(), spoolFile, request, teacherId);
+        } catch (TaskRejectedException e) {
+            deleteQuietly(spoolFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Encola la importación de un archivo que ya está en disco, como las cargas
+     * reanudables terminadas. Si el trabajo se acepta, el archivo se elimina al
+     * terminar la importación; si se rechaza, queda en disco para reintentar.
+     *
+     * @throws TaskRejectedException Si la cola de trabajos está llena
+     */
+    CsvUploadJobResponse submitSpooled(String fileName, Path spoolFile, CsvUploadRequest request, UUID teacherId) {
+        evictFinishedJobs();
+        return submit(UUID.randomUUID(), fileName, spoolFile, request, teacherId);
+    }
+
+    private CsvUploadJobResponse submit(UUID jobId, String fileName, Path spoolFile, CsvUploadRequest request, UUID teacherId) {
+        CsvUploadJob job = new CsvUploadJob(jobId, teacherId, fileName);
+        jobs.put(jobId, job);
+        try {
+            csvUploadExecutor.execute(() -> run(job, spoolFile, request));
+        } catch (TaskRejectedException e) {
+            jobs.remove(jobId);
+            throw e;
+        }
+
+        log.info("Carga asíncrona {} encolada: archivo={}, profesor={}", jobId, fileName, teacherId);
+        return job.toResponse();
+    }
+
+    public Optional<CsvUploadJobResponse> getJob(UUID jobId, UUID teacherId) {
+        CsvUploadJob job = jobs.get(jobId);
+        if (job == null || !job.getTeacherId().equals(teacherId)) {
+            return Optional.empty();
+        }
+        return Optional.of(job.toResponse());
+    }
+
+    private Path spoolPath(UUID id) throws IOException {
+        Path directory = Paths.get(spoolDir);
+        Files.createDirectories(directory);
+        return directory.resolve(id + ".csv");
+    }
+
+    private void run(CsvUploadJob job, Path spoolFile, CsvUploadRequest request) {
+        try {
+            // El archivo se lee mapeado en memoria, sin copiarlo completo al heap
+            CsvUploadResponse response = csvProcessingService.processCsvFile(
+                    job.getFileName(), new MappedFileResource(spoolFile), request, job.getTeacherId(), job);
+            job.complete(response);
+            log.info("Carga asíncrona {} finalizada: éxito={}", job.getId(), response.isSuccess());
+        } catch (Exception e) {
+            log.error("Error en la carga asíncrona {}: {}", job.getId(), e.getMessage(), e);
+            job.fail("Error procesando archivo: " + e.getMessage());
+        } finally {
+            deleteQuietly(spoolFile);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinishedBefore(limit));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}", file, e);
+        }
+    }
+}
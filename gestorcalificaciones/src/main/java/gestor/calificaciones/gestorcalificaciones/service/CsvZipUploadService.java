@@ -0,0 +1,222 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvZipManifestEntry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Carga de varios cursos en un solo ZIP de CSVs.
+ *
+ * <p>Un manifiesto indica, para cada archivo del ZIP, el curso al que
+ * pertenece. Las entradas se extraen a disco y los estudiantes nuevos de todas
+ * ellas se crean primero, en una sola transacción. Después las entradas se
+ * importan en paralelo sobre un pool acotado por el tamaño del pool de
+ * conexiones; cada entrada se importa en su propia transacción, de modo que el
+ * fallo de un curso no revierte los demás.</p>
+ */
+@Service
+@Slf4j
+public class CsvZipUploadService {
+
+    private final CsvProcessingService csvProcessingService;
+    private final ThreadPoolTaskExecutor csvZipUploadExecutor;
+
+    @Value("${csv.upload.spool-dir:${java.io.tmpdir}/gestor-uploads}")
+    private String spoolDir;
+
+    @Value("${csv.upload.zip.max-entries:100}")
+    private int maxEntries;
+
+    @Value("${csv.upload.zip.max-entry-size:50MB}")
+    private DataSize maxEntrySize;
+
+    public CsvZipUploadService(CsvProcessingService csvProcessingService,
+                               @Qualifier("csvZipUploadExecutor") ThreadPoolTaskExecutor csvZipUploadExecutor) {
+        this.csvProcessingService = csvProcessingService;
+        this.csvZipUploadExecutor = csvZipUploadExecutor;
+    }
+
+    /**
+     * Importa cada CSV del ZIP indicado en el manifiesto y devuelve un resultado
+     * por entrada, en el orden del manifiesto.
+     *
+     * @throws IllegalArgumentException Si el manifiesto es inválido
+     * @throws ZipException Si el archivo no es un ZIP válido
+     * @throws IOException Si no se pudieron extraer las entradas
+     */
+    public List<CsvUploadResponse> processZip(MultipartFile zip, List<CsvZipManifestEntry> manifest, UUID teacherId)
+            throws IOException {
+        validateManifest(manifest);
+
+        Path batchDir = Paths.get(spoolDir).resolve("zip-" + UUID.randomUUID());
+        Files.createDirectories(batchDir);
+        try {
+            long startTime = System.currentTimeMillis();
+            Map<String, Path> extracted = extractEntries(zip, manifest, batchDir);
+
+            // Los estudiantes nuevos se crean una sola vez antes de importar en paralelo: un estudiante
+            // presente en varios archivos sería creado por cada importación, con el mismo email
+            int createdStudents = csvProcessingService.provisionStudents(extracted.values().stream()
+                    .map(FileSystemResource::new)
+                    .toList());
+            log.info("ZIP: {} estudiantes nuevos creados antes de importar {} entradas", createdStudents, extracted.size());
+
+            List<CompletableFuture<CsvUploadResponse>> results = new ArrayList<>();
+            for (CsvZipManifestEntry entry : manifest) {
+                Path csvFile = extracted.get(entry.getFileName());
+                if (csvFile == null) {
+                    results.add(CompletableFuture.completedFuture(
+                            errorResponse(entry, "El archivo no se encontró en el ZIP")));
+                } else {
+                    results.add(CompletableFuture.supplyAsync(
+                            () -> importEntry(entry, csvFile, teacherId), csvZipUploadExecutor));
+                }
+            }
+
+            List<CsvUploadResponse> responses = results.stream()
+                    .map(CompletableFuture::join)
+                    .toList();
+            log.info("ZIP procesado: {} entradas, {} con éxito, en {} ms", responses.size(),
+                    responses.stream().filter(CsvUploadResponse::isSuccess).count(),
+                    System.currentTimeMillis() - startTime);
+            return responses;
+        } finally {
+            FileSystemUtils.deleteRecursively(batchDir);
+        }
+    }
+
+    private void validateManifest(List<CsvZipManifestEntry> manifest) {
+        if (manifest == null || manifest.isEmpty()) {
+            throw new IllegalArgumentException("El manifiesto no contiene entradas");
+        }
+        if (manifest.size() > maxEntries) {
+            throw new IllegalArgumentException("El manifiesto supera el máximo de " + maxEntries + " entradas");
+        }
+
+        Set<String> fileNames = new HashSet<>();
+        Set<String> courseCodes = new HashSet<>();
+        for (CsvZipManifestEntry entry : manifest) {
+            if (isBlank(entry.getFileName()) || isBlank(entry.getCourseCode()) || isBlank(entry.getCourseName())) {
+                throw new IllegalArgumentException("Cada entrada del manifiesto requiere fileName, courseCode y courseName");
+            }
+            if (!entry.getFileName().toLowerCase().endsWith(".csv")) {
+                throw new IllegalArgumentException("El archivo debe ser un CSV: " + entry.getFileName());
+            }
+            if (!fileNames.add(entry.getFileName())) {
+                throw new IllegalArgumentException("Archivo repetido en el manifiesto: " + entry.getFileName());
+            }
+            // Dos entradas del mismo curso competirían por las mismas filas en paralelo
+            if (!courseCodes.add(entry.getCourseCode())) {
+                throw new IllegalArgumentException("Curso repetido en el manifiesto: " + entry.getCourseCode());
+            }
+        }
+    }
+
+    /**
+     * Extrae a disco las entradas del ZIP presentes en el manifiesto. Una entrada
+     * coincide por su ruta completa o por su nombre sin directorios.
+     */
+    private Map<String, Path> extractEntries(MultipartFile zip, List<CsvZipManifestEntry> manifest, Path batchDir)
+            throws IOException {
+        Set<String> expected = new HashSet<>();
+        manifest.forEach(entry -> expected.add(entry.getFileName()));
+
+        Map<String, Path> extracted = new HashMap<>();
+        try (ZipInputStream input = new ZipInputStream(zip.getInputStream())) {
+            ZipEntry zipEntry;
+            while ((zipEntry = input.getNextEntry()) != null) {
+                if (zipEntry.isDirectory()) {
+                    continue;
+                }
+                String name = zipEntry.getName();
+                String fileName = expected.contains(name) ? name : name.substring(name.lastIndexOf('/') + 1);
+                if (!expected.contains(fileName) || extracted.containsKey(fileName)) {
+                    log.debug("Entrada del ZIP ignorada: {}", name);
+                    continue;
+                }
+
+                // El nombre en disco no depende de la ruta de la entrada
+                Path target = batchDir.resolve(extracted.size() + ".csv");
+                copyEntry(input, target, fileName);
+                extracted.put(fileName, target);
+            }
+        }
+        return extracted;
+    }
+
+    private void copyEntry(InputStream input, Path target, String fileName) throws IOException {
+        long limit = maxEntrySize.toBytes();
+        long written = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream output = Files.newOutputStream(target)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                written += read;
+                if (written > limit) {
+                    throw new IllegalArgumentException("El archivo " + fileName + " supera el tamaño máximo de " + maxEntrySize);
+                }
+                output.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private CsvUploadResponse importEntry(CsvZipManifestEntry entry, Path csvFile, UUID teacherId) {
+        CsvUploadRequest request = CsvUploadRequest.builder()
+                .courseCode(entry.getCourseCode())
+                .courseName(entry.getCourseName())
+                .description(entry.getDescription() != null ? entry.getDescription() : "")
+                .build();
+        try {
+            CsvUploadResponse response = csvProcessingService.processCsvFile(
+                    entry.getFileName(), new FileSystemResource(csvFile), request, teacherId, CsvImportProgress.NONE);
+            response.setFileName(entry.getFileName());
+            return response;
+        } catch (Exception e) {
+            log.error("Error procesando la entrada {} del ZIP: {}", entry.getFileName(), e.getMessage(), e);
+            return errorResponse(entry, "Error procesando archivo: " + e.getMessage());
+        }
+    }
+
+    private CsvUploadResponse errorResponse(CsvZipManifestEntry entry, String error) {
+        List<String> errors = new ArrayList<>();
+        errors.add(error);
+        return CsvUploadResponse.builder()
+                .message("Error procesando archivo CSV")
+                .fileName(entry.getFileName())
+                .courseName(entry.getCourseName())
+                .errors(errors)
+                .success(false)
+                .build();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
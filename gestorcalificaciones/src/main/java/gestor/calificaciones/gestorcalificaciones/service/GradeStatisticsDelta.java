@@ -0,0 +1,95 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.entities.GradeCounters;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import gestor.calificaciones.gestorcalificaciones.repository.GradeGroupCount;
+import gestor.calificaciones.gestorcalificaciones.repository.ScoreBucketCount;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Cambios en las estadísticas de calificaciones de un curso producidos por un
+ * bloque de escrituras: cada calificación nueva suma, y cada calificación
+ * modificada resta sus valores anteriores y suma los nuevos.
+ *
+ * <p>Las claves se mantienen ordenadas para que dos cargas concurrentes del
+ * mismo curso actualicen las filas de estadísticas en el mismo orden.</p>
+ */
+class GradeStatisticsDelta {
+
+    private final GradeCounters course = new GradeCounters();
+    private final Map<UUID, GradeCounters> exercises = new TreeMap<>();
+    private final Map<UUID, GradeCounters> students = new TreeMap<>();
+    private final Map<UUID, int[]> scoreHistograms = new TreeMap<>();
+
+    /**
+     * Construye las estadísticas completas de un curso a partir de sus conteos
+     * agrupados por ejercicio, por estudiante y por ejercicio y puntaje.
+     */
+    static GradeStatisticsDelta fromGroups(List<GradeGroupCount> byExercise, List<GradeGroupCount> byStudent,
+                                           List<ScoreBucketCount> byScore) {
+        GradeStatisticsDelta delta = new GradeStatisticsDelta();
+        for (GradeGroupCount group : byExercise) {
+            addGroup(delta.course, group);
+            addGroup(delta.exercises.computeIfAbsent(group.groupId(), id -> new GradeCounters()), group);
+        }
+        for (GradeGroupCount group : byStudent) {
+            addGroup(delta.students.computeIfAbsent(group.groupId(), id -> new GradeCounters()), group);
+        }
+        for (ScoreBucketCount bucket : byScore) {
+            delta.scoreHistogram(bucket.exerciseId())[ScoreHistogram.bucketOf(bucket.score())]
+                    += bucket.gradeCount().intValue();
+        }
+        return delta;
+    }
+
+    void add(UUID studentId, UUID exerciseId, GradeStatus status, Integer score) {
+        apply(studentId, exerciseId, status, score, 1);
+    }
+
+    void remove(UUID studentId, UUID exerciseId, GradeStatus status, Integer score) {
+        apply(studentId, exerciseId, status, score, -1);
+    }
+
+    GradeCounters getCourse() {
+        return course;
+    }
+
+    Map<UUID, GradeCounters> getExercises() {
+        return exercises;
+    }
+
+    Map<UUID, GradeCounters> getStudents() {
+        return students;
+    }
+
+    /**
+     * Cambios en el número de calificaciones por puntaje (0 a 100) de cada ejercicio.
+     */
+    Map<UUID, int[]> getScoreHistograms() {
+        return scoreHistograms;
+    }
+
+    private void apply(UUID studentId, UUID exerciseId, GradeStatus status, Integer score, int sign) {
+        long scoreSum = score != null ? (long) sign * score : 0L;
+        int scoreCount = score != null ? sign : 0;
+        course.add(status, sign, scoreSum, scoreCount);
+        exercises.computeIfAbsent(exerciseId, id -> new GradeCounters()).add(status, sign, scoreSum, scoreCount);
+        students.computeIfAbsent(studentId, id -> new GradeCounters()).add(status, sign, scoreSum, scoreCount);
+        if (score != null) {
+            scoreHistogram(exerciseId)[ScoreHistogram.bucketOf(score)] += sign;
+        }
+    }
+
+    private int[] scoreHistogram(UUID exerciseId) {
+        return scoreHistograms.computeIfAbsent(exerciseId, id -> new int[ScoreHistogram.BUCKETS]);
+    }
+
+    private static void addGroup(GradeCounters counters, GradeGroupCount group) {
+        counters.add(group.status(), group.gradeCount().intValue(),
+                group.scoreSum() != null ? group.scoreSum() : 0L, group.scoreCount().intValue());
+    }
+}
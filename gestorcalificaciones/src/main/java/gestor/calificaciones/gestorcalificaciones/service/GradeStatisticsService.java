@@ -0,0 +1,215 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.entities.GradeCounters;
+import gestor.calificaciones.gestorcalificaciones.entities.UuidV7Generator;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseGradeStatsRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.ExerciseGradeStatsRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.ExerciseScoreBucketRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentCourseGradeStatsRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mantenimiento de las tablas de estadísticas de calificaciones por curso,
+ * ejercicio y (estudiante, curso), y de los histogramas de puntajes por ejercicio.
+ *
+ * <p>Las cargas de CSV aplican los cambios de cada bloque con sumas atómicas
+ * ({@code INSERT ... ON CONFLICT DO UPDATE}) dentro de su propia transacción,
+ * de modo que las estadísticas se confirman o revierten junto con las
+ * calificaciones. La reconstrucción recalcula un curso desde
+ * {@code student_grades}; un bloqueo consultivo por curso la serializa con las
+ * cargas en curso (las cargas lo toman compartido, la reconstrucción exclusivo)
+ * para que no se pierdan ni se dupliquen cambios sin confirmar.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GradeStatisticsService {
+
+    private static final String UPSERT_COURSE_SQL =
+            "INSERT INTO course_grade_stats (course_id, " + counterColumns() + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (course_id) DO UPDATE SET " + counterIncrements("course_grade_stats");
+
+    private static final String UPSERT_EXERCISE_SQL =
+            "INSERT INTO exercise_grade_stats (exercise_id, course_id, " + counterColumns() + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (exercise_id) DO UPDATE SET " + counterIncrements("exercise_grade_stats");
+
+    private static final String UPSERT_STUDENT_SQL =
+            "INSERT INTO student_course_grade_stats (id, student_id, course_id, " + counterColumns() + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (student_id, course_id) DO UPDATE SET " + counterIncrements("student_course_grade_stats");
+
+    private static final String UPSERT_SCORE_BUCKET_SQL =
+            "INSERT INTO exercise_score_buckets (id, exercise_id, course_id, score, grade_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (exercise_id, score) DO UPDATE SET " +
+            "grade_count = exercise_score_buckets.grade_count + EXCLUDED.grade_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CourseRepository courseRepository;
+    private final StudentGradeRepository studentGradeRepository;
+    private final CourseGradeStatsRepository courseGradeStatsRepository;
+    private final ExerciseGradeStatsRepository exerciseGradeStatsRepository;
+    private final StudentCourseGradeStatsRepository studentCourseGradeStatsRepository;
+    private final ExerciseScoreBucketRepository exerciseScoreBucketRepository;
+
+    /**
+     * Suma los cambios indicados a las estadísticas del curso. Debe llamarse
+     * dentro de la transacción que escribe las calificaciones; la fila del curso
+     * se crea aunque no haya cambios, para marcar sus estadísticas como mantenidas.
+     * Las estadísticas del curso deben existir antes de la primera escritura
+     * (ver {@link #ensureCourse}); si no, los cambios se sumarían sobre cero.
+     */
+    void apply(UUID courseId, GradeStatisticsDelta delta) {
+        lockCourse(courseId, false);
+
+        GradeCounters course = delta.getCourse();
+        jdbcTemplate.update(UPSERT_COURSE_SQL, counterValues(List.of(courseId), course));
+
+        List<Object[]> exerciseRows = new ArrayList<>();
+        for (Map.Entry<UUID, GradeCounters> entry : delta.getExercises().entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                exerciseRows.add(counterValues(List.of(entry.getKey(), courseId), entry.getValue()));
+            }
+        }
+        if (!exerciseRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_EXERCISE_SQL, exerciseRows);
+        }
+
+        List<Object[]> studentRows = new ArrayList<>();
+        for (Map.Entry<UUID, GradeCounters> entry : delta.getStudents().entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                studentRows.add(counterValues(
+                        List.of(UuidV7Generator.nextUuid(), entry.getKey(), courseId), entry.getValue()));
+            }
+        }
+        if (!studentRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_STUDENT_SQL, studentRows);
+        }
+        List<Object[]> bucketRows = new ArrayList<>();
+        for (Map.Entry<UUID, int[]> entry : delta.getScoreHistograms().entrySet()) {
+            int[] histogram = entry.getValue();
+            for (int score = 0; score < histogram.length; score++) {
+                if (histogram[score] != 0) {
+                    bucketRows.add(new Object[]{
+                            UuidV7Generator.nextUuid(), entry.getKey(), courseId, score, histogram[score]});
+                }
+            }
+        }
+        if (!bucketRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SCORE_BUCKET_SQL, bucketRows);
+        }
+        log.debug("Estadísticas del curso {} actualizadas: {} ejercicios, {} estudiantes, {} puntajes",
+                courseId, exerciseRows.size(), studentRows.size(), bucketRows.size());
+    }
+
+    /**
+     * Recalcula desde cero las estadísticas de un curso en su propia transacción.
+     */
+    public void rebuildCourse(UUID courseId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            lockCourse(courseId, true);
+            courseGradeStatsRepository.deleteByCourseId(courseId);
+            exerciseGradeStatsRepository.deleteByCourseId(courseId);
+            studentCourseGradeStatsRepository.deleteByCourseId(courseId);
+            exerciseScoreBucketRepository.deleteByCourseId(courseId);
+
+            apply(courseId, GradeStatisticsDelta.fromGroups(
+                    studentGradeRepository.countByCourseIdGroupByExerciseAndStatus(courseId),
+                    studentGradeRepository.countByCourseIdGroupByStudentAndStatus(courseId),
+                    studentGradeRepository.countByCourseIdGroupByExerciseAndScore(courseId)));
+        });
+    }
+
+    /**
+     * Reconstruye las estadísticas de un curso que aún no tiene fila de
+     * estadísticas (anterior a las tablas de estadísticas o sin cargas).
+     *
+     * <p>Las cargas la llaman antes de escribir calificaciones, y el inicio de la
+     * aplicación para los cursos existentes (ver {@link #rebuildMissing}). Dentro de la
+     * transacción de una carga, la reconstrucción se une a ella y el bloqueo
+     * exclusivo del curso se mantiene hasta confirmarla; solo ocurre en la
+     * primera carga de un curso sin estadísticas.</p>
+     */
+    public void ensureCourse(UUID courseId) {
+        if (!courseGradeStatsRepository.existsById(courseId)) {
+            rebuildCourse(courseId);
+        }
+    }
+
+    /**
+     * Reconstruye las estadísticas de los cursos que aún no tienen fila de
+     * estadísticas, uno por transacción. Las consultas de estadísticas no
+     * escriben: mientras un curso no se reconstruya, agrupan sus calificaciones.
+     */
+    public int rebuildMissing() {
+        List<UUID> courseIds = courseRepository.findIdsWithoutGradeStats();
+        for (UUID courseId : courseIds) {
+            ensureCourse(courseId);
+        }
+        if (!courseIds.isEmpty()) {
+            log.info("Estadísticas reconstruidas para {} cursos sin estadísticas", courseIds.size());
+        }
+        return courseIds.size();
+    }
+
+    /**
+     * Recalcula las estadísticas de todos los cursos, uno por transacción.
+     */
+    public int rebuildAll() {
+        long startTime = System.currentTimeMillis();
+        List<UUID> courseIds = courseRepository.findAllIds();
+        for (UUID courseId : courseIds) {
+            rebuildCourse(courseId);
+        }
+        log.info("Estadísticas reconstruidas para {} cursos en {} ms",
+                courseIds.size(), System.currentTimeMillis() - startTime);
+        return courseIds.size();
+    }
+
+    private void lockCourse(UUID courseId, boolean exclusive) {
+        long key = courseId.getMostSignificantBits() ^ courseId.getLeastSignificantBits();
+        String function = exclusive ? "pg_advisory_xact_lock" : "pg_advisory_xact_lock_shared";
+        jdbcTemplate.query("SELECT " + function + "(?)", resultSet -> { }, key);
+    }
+
+    private static Object[] counterValues(List<Object> keys, GradeCounters counters) {
+        List<Object> values = new ArrayList<>(keys);
+        values.add(counters.getCorrectCount());
+        values.add(counters.getIncorrectCount());
+        values.add(counters.getPendingCount());
+        values.add(counters.getNotSubmittedCount());
+        values.add(counters.getScoreSum());
+        values.add(counters.getScoreCount());
+        return values.toArray();
+    }
+
+    private static String counterColumns() {
+        return "correct_count, incorrect_count, pending_count, not_submitted_count, score_sum, score_count";
+    }
+
+    private static String counterIncrements(String table) {
+        StringBuilder increments = new StringBuilder();
+        for (String column : counterColumns().split(", ")) {
+            if (!increments.isEmpty()) {
+                increments.append(", ");
+            }
+            increments.append(column).append(" = ").append(table).append('.').append(column)
+                    .append(" + EXCLUDED.").append(column);
+        }
+        return increments.toString();
+    }
+}
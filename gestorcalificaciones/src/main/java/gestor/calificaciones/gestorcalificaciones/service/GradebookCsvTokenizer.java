@@ -0,0 +1,267 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV de libros de calificaciones hecho a la medida del formato de carga.
+ *
+ * <p>Recorre un búfer de caracteres reutilizable, admite campos entre comillas
+ * (con {@code ""} como comilla escapada y saltos de línea dentro de comillas) y
+ * los separadores {@code ,} y {@code ;}, y omite la marca de orden de bytes
+ * UTF-8 que algunas hojas de cálculo agregan al inicio. Solo el nombre del
+ * estudiante se convierte en {@code String}; las celdas de calificación se
+ * clasifican directamente desde el búfer en un puntaje o un estado, omitiendo
+ * las celdas {@code NA} y {@code Total Grade}.</p>
+ */
+final class GradebookCsvTokenizer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int EOF = -1;
+    private static final int SEPARATOR = 0;
+    private static final int END_OF_LINE = 1;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private static final char[] TOTAL_GRADE = "total grade".toCharArray();
+    private static final char[] QUOTED_TOTAL_GRADE = "\"total grade\"".toCharArray();
+    private static final char[] NOT_AVAILABLE = "na".toCharArray();
+    private static final char[] NOT_SUBMITTED = "not submitted".toCharArray();
+
+    private final Reader reader;
+    private final char separator;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    // Número de la última fila leída; el encabezado es la fila 1
+    private int rowNumber;
+
+    // Contenido del campo actual, reutilizado entre celdas
+    private char[] field = new char[256];
+    private int fieldLength;
+
+    /**
+     * Fila de datos ya tokenizada: número de fila en el archivo, nombre sin
+     * normalizar y calificaciones clasificadas.
+     */
+    record Row(int rowNumber, String name, List<ParsedGrade> grades) {
+    }
+
+    GradebookCsvTokenizer(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /**
+     * Lee la fila de encabezados como texto, o {@code null} si el archivo está vacío.
+     */
+    String[] readHeader() throws IOException {
+        if (peek() == BYTE_ORDER_MARK) {
+            next();
+        }
+        if (peek() == EOF) {
+            return null;
+        }
+        rowNumber++;
+        List<String> cells = new ArrayList<>();
+        int terminator;
+        do {
+            terminator = readField();
+            cells.add(new String(field, 0, fieldLength));
+        } while (terminator == SEPARATOR);
+        return cells.toArray(new String[0]);
+    }
+
+    /**
+     * Lee la siguiente fila con nombre de estudiante, saltando las filas cuyo
+     * primer campo está vacío. Devuelve {@code null} al final del archivo.
+     */
+    Row nextRow() throws IOException {
+        while (peek() != EOF) {
+            rowNumber++;
+            int terminator = readField();
+            boolean blankName = isBlank();
+            String name = blankName ? null : new String(field, 0, fieldLength);
+
+            List<ParsedGrade> grades = new ArrayList<>();
+            while (terminator == SEPARATOR) {
+                terminator = readField();
+                if (blankName) {
+                    continue;
+                }
+                ParsedGrade grade = classifyField();
+                if (grade != null) {
+                    grades.add(grade);
+                }
+            }
+
+            if (!blankName) {
+                return new Row(rowNumber, name, grades);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Lee un campo en {@link #field} y devuelve qué lo terminó: separador, fin de
+     * línea o fin de archivo.
+     */
+    private int readField() throws IOException {
+        fieldLength = 0;
+        boolean quoted = false;
+        while (true) {
+            int c = next();
+            if (c == EOF) {
+                return EOF;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        next();
+                        append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == separator) {
+                return SEPARATOR;
+            } else if (c == '\n') {
+                return END_OF_LINE;
+            } else if (c == '\r') {
+                if (peek() == '\n') {
+                    next();
+                }
+                return END_OF_LINE;
+            } else if (c == '"') {
+                quoted = true;
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Clasifica el campo actual sin crear cadenas. Devuelve {@code null} si la
+     * celda debe ignorarse ("NA" o "Total Grade").
+     */
+    private ParsedGrade classifyField() {
+        int start = 0;
+        int end = fieldLength;
+        // Recortar espacios y comillas sobrantes alrededor del valor
+        while (start < end && field[start] <= ' ') start++;
+        while (end > start && field[end - 1] <= ' ') end--;
+        if (start < end && field[start] == '"') start++;
+        if (end > start && field[end - 1] == '"') end--;
+
+        if (equalsIgnoreCase(start, end, TOTAL_GRADE)
+                || equalsIgnoreCase(start, end, QUOTED_TOTAL_GRADE)
+                || equalsIgnoreCase(start, end, NOT_AVAILABLE)) {
+            return null;
+        }
+
+        while (start < end && field[start] <= ' ') start++;
+        while (end > start && field[end - 1] <= ' ') end--;
+        if (start == end || equalsIgnoreCase(start, end, NOT_SUBMITTED)) {
+            return ParsedGrade.NOT_SUBMITTED;
+        }
+        return parseScore(start, end);
+    }
+
+    // Misma sintaxis que Integer.parseInt: signo opcional seguido de dígitos
+    private ParsedGrade parseScore(int start, int end) {
+        boolean negative = false;
+        if (field[start] == '-' || field[start] == '+') {
+            negative = field[start] == '-';
+            start++;
+            if (start == end) {
+                return ParsedGrade.PENDING;
+            }
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(field[i], 10);
+            if (digit < 0) {
+                return ParsedGrade.PENDING;
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return ParsedGrade.PENDING;
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            return ParsedGrade.PENDING;
+        }
+        return ParsedGrade.ofScore((int) value);
+    }
+
+    private boolean isBlank() {
+        for (int i = 0; i < fieldLength; i++) {
+            if (field[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Compara el rango del campo con una constante ya en minúsculas
+    private boolean equalsIgnoreCase(int start, int end, char[] lowerCaseValue) {
+        if (end - start != lowerCaseValue.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCaseValue.length; i++) {
+            if (Character.toLowerCase(field[start + i]) != lowerCaseValue[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if (fieldLength == field.length) {
+            char[] grown = new char[field.length * 2];
+            System.arraycopy(field, 0, grown, 0, fieldLength);
+            field = grown;
+        }
+        field[fieldLength++] = c;
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return EOF;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
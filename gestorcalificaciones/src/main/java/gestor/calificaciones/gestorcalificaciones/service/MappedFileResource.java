@@ -0,0 +1,121 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import org.springframework.core.io.InputStreamSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Archivo en disco leído a través de un {@link FileChannel} mapeado en memoria.
+ *
+ * <p>El archivo se recorre por ventanas de tamaño fijo, de modo que ni la
+ * importación ni el cálculo del checksum copian el contenido completo al heap,
+ * sin importar el tamaño del CSV.</p>
+ */
+class MappedFileResource implements InputStreamSource {
+
+    static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final Path file;
+    private final long windowSize;
+
+    MappedFileResource(Path file) {
+        this(file, WINDOW_SIZE);
+    }
+
+    // Las pruebas usan ventanas pequeñas para cruzar sus límites sin archivos de 64 MB
+    MappedFileResource(Path file, long windowSize) {
+        this.file = file;
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new MappedInputStream(FileChannel.open(file, StandardOpenOption.READ), windowSize);
+    }
+
+    /**
+     * Calcula el resumen del archivo con el algoritmo indicado (ej: "SHA-256").
+     */
+    byte[] digest(String algorithm) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo de resumen no disponible: " + algorithm, e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += windowSize) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(windowSize, size - position)));
+            }
+        }
+        return digest.digest();
+    }
+
+    private static final class MappedInputStream extends InputStream {
+
+        private final FileChannel channel;
+        private final long size;
+        private final long windowSize;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        MappedInputStream(FileChannel channel, long windowSize) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowSize = windowSize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureWindow()) {
+                return -1;
+            }
+            return window.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureWindow()) {
+                return -1;
+            }
+            int count = Math.min(length, window.remaining());
+            window.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return window != null ? window.remaining() : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        // Mapea la siguiente ventana cuando la actual se agotó
+        private boolean ensureWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            long next = window == null ? 0 : windowStart + window.capacity();
+            if (next >= size) {
+                return false;
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowSize, size - next));
+            windowStart = next;
+            return true;
+        }
+    }
+}
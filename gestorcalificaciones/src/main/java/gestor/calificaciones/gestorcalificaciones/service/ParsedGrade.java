@@ -0,0 +1,39 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+
+/**
+ * Calificación de una celda del CSV ya clasificada; el puntaje solo existe si la
+ * celda es numérica.
+ *
+ * <p>Los valores habituales (sin entregar, pendiente y puntajes de 0 a 100) son
+ * instancias compartidas, de modo que clasificar una celda no crea objetos.</p>
+ */
+record ParsedGrade(GradeStatus status, Integer score) {
+
+    // Puntaje mínimo para considerar correcta una calificación
+    static final int PASSING_SCORE = 80;
+
+    static final ParsedGrade NOT_SUBMITTED = new ParsedGrade(GradeStatus.NOT_SUBMITTED, null);
+    static final ParsedGrade PENDING = new ParsedGrade(GradeStatus.PENDING, null);
+
+    private static final ParsedGrade[] COMMON_SCORES = new ParsedGrade[101];
+
+    static {
+        for (int score = 0; score < COMMON_SCORES.length; score++) {
+            COMMON_SCORES[score] = new ParsedGrade(statusFor(score), score);
+        }
+    }
+
+    static ParsedGrade ofScore(int score) {
+        if (score >= 0 && score < COMMON_SCORES.length) {
+            return COMMON_SCORES[score];
+        }
+        return new ParsedGrade(statusFor(score), score);
+    }
+
+    private static GradeStatus statusFor(int score) {
+        // >= 80 correcto; cualquier otro valor numérico, incorrecto
+        return score >= PASSING_SCORE ? GradeStatus.CORRECT : GradeStatus.INCORRECT;
+    }
+}
@@ -0,0 +1,79 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadResponse;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de una carga reanudable: los bytes recibidos de forma contigua desde
+ * el inicio del archivo y el archivo temporal donde se acumulan.
+ */
+class ResumableUpload {
+
+    private final UUID id;
+    private final UUID teacherId;
+    private final String fileName;
+    private final CsvUploadRequest request;
+    private final long totalSize;
+    private final String sha256;
+    private final Path spoolFile;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private volatile long receivedBytes;
+    private volatile boolean verified;
+    private volatile LocalDateTime updatedAt = createdAt;
+
+    ResumableUpload(UUID id, UUID teacherId, String fileName, CsvUploadRequest request,
+                    long totalSize, String sha256, Path spoolFile) {
+        this.id = id;
+        this.teacherId = teacherId;
+        this.fileName = fileName;
+        this.request = request;
+        this.totalSize = totalSize;
+        this.sha256 = sha256;
+        this.spoolFile = spoolFile;
+    }
+
+    void advanceTo(long offset) {
+        if (offset > receivedBytes) {
+            receivedBytes = offset;
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    void markVerified() {
+        this.verified = true;
+    }
+
+    boolean isComplete() {
+        return receivedBytes == totalSize;
+    }
+
+    boolean isIdleSince(LocalDateTime limit) {
+        return updatedAt.isBefore(limit);
+    }
+
+    UUID getId() { return id; }
+    UUID getTeacherId() { return teacherId; }
+    String getFileName() { return fileName; }
+    CsvUploadRequest getRequest() { return request; }
+    long getTotalSize() { return totalSize; }
+    long getReceivedBytes() { return receivedBytes; }
+    String getSha256() { return sha256; }
+    Path getSpoolFile() { return spoolFile; }
+    boolean isVerified() { return verified; }
+
+    ResumableUploadResponse toResponse() {
+        return ResumableUploadResponse.builder()
+                .uploadId(id.toString())
+                .fileName(fileName)
+                .totalSize(totalSize)
+                .receivedBytes(receivedBytes)
+                .complete(isComplete())
+                .createdAt(createdAt)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
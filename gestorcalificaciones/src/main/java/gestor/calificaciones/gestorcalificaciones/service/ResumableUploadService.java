@@ -0,0 +1,230 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadJobResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadInitRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cargas de CSV reanudables por bloques.
+ *
+ * <p>El cliente inicia la carga indicando el tamaño total y el SHA-256 del
+ * archivo, y envía bloques con su offset. Los bloques se escriben directamente
+ * en un archivo temporal; si la conexión se corta, el cliente consulta los bytes
+ * recibidos y continúa desde ese offset. Al completar, el checksum se calcula
+ * sobre el archivo mapeado en memoria y la importación se encola como una carga
+ * asíncrona.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableUploadService {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final CsvUploadJobService csvUploadJobService;
+    private final Map<UUID, ResumableUpload> uploads = new ConcurrentHashMap<>();
+
+    @Value("${csv.upload.spool-dir:${java.io.tmpdir}/gestor-uploads}")
+    private String spoolDir;
+
+    @Value("${csv.upload.resumable.max-file-size:500MB}")
+    private DataSize maxFileSize;
+
+    @Value("${csv.upload.resumable.max-chunk-size:16MB}")
+    private DataSize maxChunkSize;
+
+    @Value("${csv.upload.resumable.expiry-minutes:1440}")
+    private long expiryMinutes;
+
+    /**
+     * Inicia una carga reanudable y reserva su archivo temporal.
+     *
+     * @throws IllegalArgumentException Si los datos de la carga son inválidos
+     * @throws IOException Si no se pudo crear el archivo temporal
+     */
+    public ResumableUploadResponse start(ResumableUploadInitRequest init, UUID teacherId) throws IOException {
+        evictIdleUploads();
+        validate(init);
+
+        UUID uploadId = UUID.randomUUID();
+        Path directory = Paths.get(spoolDir).resolve("resumable");
+        Files.createDirectories(directory);
+        Path spoolFile = Files.createFile(directory.resolve(uploadId + ".part"));
+
+        CsvUploadRequest request = CsvUploadRequest.builder()
+                .courseCode(init.getCourseCode())
+                .courseName(init.getCourseName())
+                .description(init.getDescription() != null ? init.getDescription() : "")
+                .build();
+        ResumableUpload upload = new ResumableUpload(uploadId, teacherId, init.getFileName(), request,
+                init.getTotalSize(), init.getSha256().toLowerCase(), spoolFile);
+        uploads.put(uploadId, upload);
+
+        log.info("Carga reanudable {} iniciada: archivo={}, tamaño={} bytes, profesor={}",
+                uploadId, init.getFileName(), init.getTotalSize(), teacherId);
+        return upload.toResponse();
+    }
+
+    public Optional<ResumableUploadResponse> getUpload(UUID uploadId, UUID teacherId) {
+        return find(uploadId, teacherId).map(ResumableUpload::toResponse);
+    }
+
+    /**
+     * Escribe un bloque en el offset indicado. Se aceptan bloques que empiezan en
+     * un offset ya recibido (reenvíos) o exactamente al final de lo recibido.
+     *
+     * @throws IllegalArgumentException Si el bloque excede el tamaño declarado o el máximo por bloque
+     * @throws IllegalStateException Si el offset deja un hueco respecto a lo recibido
+     * @throws IOException Si no se pudo escribir el bloque
+     */
+    public Optional<ResumableUploadResponse> writeChunk(UUID uploadId, UUID teacherId, long offset, InputStream body)
+            throws IOException {
+        Optional<ResumableUpload> found = find(uploadId, teacherId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ResumableUpload upload = found.get();
+
+        // Un solo bloque a la vez por carga
+        synchronized (upload) {
+            if (offset < 0 || offset > upload.getReceivedBytes()) {
+                throw new IllegalStateException("Offset inválido " + offset + ": se han recibido "
+                        + upload.getReceivedBytes() + " bytes");
+            }
+
+            long limit = Math.min(upload.getTotalSize() - offset, maxChunkSize.toBytes());
+            long end = offset;
+            try (FileChannel channel = FileChannel.open(upload.getSpoolFile(), StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    if (end - offset + read > limit) {
+                        throw new IllegalArgumentException("El bloque excede el tamaño declarado del archivo o el máximo de "
+                                + maxChunkSize + " por bloque");
+                    }
+                    ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                    while (data.hasRemaining()) {
+                        end += channel.write(data, end);
+                    }
+                }
+            } finally {
+                // Lo escrito antes de un corte también cuenta como recibido
+                upload.advanceTo(end);
+            }
+            log.debug("Carga reanudable {}: bloque [{}, {}) recibido", uploadId, offset, end);
+            return Optional.of(upload.toResponse());
+        }
+    }
+
+    /**
+     * Verifica el checksum del archivo completo y encola su importación.
+     *
+     * @throws IllegalStateException Si aún faltan bytes por recibir
+     * @throws IllegalArgumentException Si el SHA-256 no coincide; la carga se descarta
+     * @throws TaskRejectedException Si la cola de trabajos está llena; la carga se conserva para reintentar
+     * @throws IOException Si no se pudo leer el archivo
+     */
+    public Optional<CsvUploadJobResponse> complete(UUID uploadId, UUID teacherId) throws IOException {
+        Optional<ResumableUpload> found = find(uploadId, teacherId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ResumableUpload upload = found.get();
+
+        synchronized (upload) {
+            if (!upload.isComplete()) {
+                throw new IllegalStateException("La carga está incompleta: se han recibido "
+                        + upload.getReceivedBytes() + " de " + upload.getTotalSize() + " bytes");
+            }
+
+            if (!upload.isVerified()) {
+                String actual = HexFormat.of().formatHex(
+                        new MappedFileResource(upload.getSpoolFile()).digest("SHA-256"));
+                if (!actual.equals(upload.getSha256())) {
+                    discard(upload);
+                    throw new IllegalArgumentException("El SHA-256 del archivo no coincide; la carga debe reiniciarse");
+                }
+                upload.markVerified();
+            }
+
+            CsvUploadJobResponse job = csvUploadJobService.submitSpooled(
+                    upload.getFileName(), upload.getSpoolFile(), upload.getRequest(), teacherId);
+            // El trabajo asíncrono se encarga ahora del archivo temporal
+            uploads.remove(uploadId);
+            log.info("Carga reanudable {} completada y encolada como trabajo {}", uploadId, job.getJobId());
+            return Optional.of(job);
+        }
+    }
+
+    /**
+     * Cancela una carga en curso y elimina su archivo temporal.
+     */
+    public boolean cancel(UUID uploadId, UUID teacherId) {
+        Optional<ResumableUpload> found = find(uploadId, teacherId);
+        found.ifPresent(this::discard);
+        return found.isPresent();
+    }
+
+    private void validate(ResumableUploadInitRequest init) {
+        if (init.getFileName() == null || !init.getFileName().toLowerCase().endsWith(".csv")) {
+            throw new IllegalArgumentException("El archivo debe ser un CSV válido");
+        }
+        if (init.getCourseCode() == null || init.getCourseCode().isBlank()
+                || init.getCourseName() == null || init.getCourseName().isBlank()) {
+            throw new IllegalArgumentException("Se requieren courseCode y courseName");
+        }
+        if (init.getTotalSize() <= 0 || init.getTotalSize() > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("El tamaño del archivo debe estar entre 1 byte y " + maxFileSize);
+        }
+        if (init.getSha256() == null || !init.getSha256().matches("[0-9a-fA-F]{64}")) {
+            throw new IllegalArgumentException("Se requiere el SHA-256 del archivo en hexadecimal");
+        }
+    }
+
+    private Optional<ResumableUpload> find(UUID uploadId, UUID teacherId) {
+        ResumableUpload upload = uploads.get(uploadId);
+        if (upload == null || !upload.getTeacherId().equals(teacherId)) {
+            return Optional.empty();
+        }
+        return Optional.of(upload);
+    }
+
+    private void evictIdleUploads() {
+        LocalDateTime limit = LocalDateTime.now().minusMinutes(expiryMinutes);
+        uploads.values().stream()
+                .filter(upload -> upload.isIdleSince(limit))
+                .toList()
+                .forEach(this::discard);
+    }
+
+    private void discard(ResumableUpload upload) {
+        uploads.remove(upload.getId());
+        try {
+            Files.deleteIfExists(upload.getSpoolFile());
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}", upload.getSpoolFile(), e);
+        }
+    }
+}
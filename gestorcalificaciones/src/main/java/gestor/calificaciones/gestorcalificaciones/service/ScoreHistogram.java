@@ -0,0 +1,79 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.ScoreDistribution;
+
+/**
+ * Histogramas de puntajes de 101 posiciones (0 a 100). Como los puntajes son
+ * enteros, el histograma no pierde información: los percentiles se obtienen de
+ * forma exacta recorriendo las posiciones acumuladas, sin ordenar calificaciones.
+ */
+final class ScoreHistogram {
+
+    static final int BUCKETS = 101;
+
+    private ScoreHistogram() {
+    }
+
+    /**
+     * Posición de un puntaje; los puntajes fuera de rango cuentan en el extremo más cercano.
+     */
+    static int bucketOf(int score) {
+        return Math.max(0, Math.min(BUCKETS - 1, score));
+    }
+
+    /**
+     * Distribución del histograma que empieza en {@code offset} dentro de {@code histograms}.
+     */
+    static ScoreDistribution distribution(int[] histograms, int offset) {
+        int[] buckets = new int[BUCKETS];
+        long scoredCount = 0;
+        Integer minScore = null;
+        Integer maxScore = null;
+        for (int score = 0; score < BUCKETS; score++) {
+            // Un conteo negativo solo puede venir de estadísticas desviadas; se trata como vacío
+            int count = Math.max(0, histograms[offset + score]);
+            buckets[score] = count;
+            if (count > 0) {
+                scoredCount += count;
+                if (minScore == null) {
+                    minScore = score;
+                }
+                maxScore = score;
+            }
+        }
+
+        if (scoredCount == 0) {
+            return new ScoreDistribution(0, null, null, 0.0, 0.0, 0.0, buckets);
+        }
+        return new ScoreDistribution((int) scoredCount, minScore, maxScore,
+                percentile(buckets, scoredCount, 0.25),
+                percentile(buckets, scoredCount, 0.50),
+                percentile(buckets, scoredCount, 0.75),
+                buckets);
+    }
+
+    // Interpolación lineal entre estadísticos de orden, el mismo criterio que PERCENTILE.INC
+    private static double percentile(int[] buckets, long count, double fraction) {
+        double position = (count - 1) * fraction;
+        long lower = (long) Math.floor(position);
+        double weight = position - lower;
+        int lowerScore = orderStatistic(buckets, lower);
+        if (weight == 0.0) {
+            return lowerScore;
+        }
+        int upperScore = orderStatistic(buckets, lower + 1);
+        return lowerScore + weight * (upperScore - lowerScore);
+    }
+
+    // Puntaje en la posición k (desde 0) de los puntajes ordenados
+    private static int orderStatistic(int[] buckets, long k) {
+        long seen = 0;
+        for (int score = 0; score < BUCKETS; score++) {
+            seen += buckets[score];
+            if (seen > k) {
+                return score;
+            }
+        }
+        return BUCKETS - 1;
+    }
+}
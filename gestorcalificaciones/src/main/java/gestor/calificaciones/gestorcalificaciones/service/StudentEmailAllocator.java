@@ -0,0 +1,98 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Asigna emails únicos a los estudiantes creados durante una carga de CSV.
+ *
+ * <p>Por cada bloque de estudiantes nuevos se consultan, en una sola consulta,
+ * todos los emails existentes que comparten alguna de las bases generadas
+ * ({@code base@estudiante.com}, {@code base.1@estudiante.com}, ...). Los sufijos
+ * libres se eligen en memoria, registrando también los emails asignados en la
+ * misma carga. El índice único sobre {@code users.email} impide duplicados si
+ * dos cargas concurrentes eligen el mismo email.</p>
+ */
+@Slf4j
+class StudentEmailAllocator {
+
+    static final String DOMAIN = "@estudiante.com";
+    // 255 - 15 para "@estudiante.com"
+    static final int MAX_LOCAL_LENGTH = 240;
+    private static final int MAX_SUFFIX = 1000;
+
+    private final StudentRepository studentRepository;
+    private final Set<String> takenEmails = new HashSet<>();
+    private final Set<String> loadedBases = new HashSet<>();
+
+    StudentEmailAllocator(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    /**
+     * Carga con una sola consulta los emails existentes que comparten alguna
+     * de las bases indicadas y que aún no se han consultado en esta carga.
+     */
+    void preload(Collection<String> baseLocalParts) {
+        Set<String> pending = baseLocalParts.stream()
+                .filter(base -> !loadedBases.contains(base))
+                .collect(Collectors.toSet());
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<String> existing = studentRepository.findEmailsSharingBase(pending.stream()
+                .map(base -> base + DOMAIN)
+                .collect(Collectors.toList()));
+        takenEmails.addAll(existing);
+        loadedBases.addAll(pending);
+        log.debug("Emails consultados: {} bases, {} emails ocupados", pending.size(), existing.size());
+    }
+
+    /**
+     * Devuelve el primer email libre para la base indicada y lo marca como ocupado.
+     */
+    String allocate(String baseLocalPart) {
+        String email = baseLocalPart + DOMAIN;
+
+        int suffix = 1;
+        String baseForSuffix = baseLocalPart;
+        while (takenEmails.contains(email)) {
+            String suffixStr = String.valueOf(suffix);
+            int maxWithSuffix = MAX_LOCAL_LENGTH - suffixStr.length() - 1; // -1 para el punto
+            if (maxWithSuffix < 0) maxWithSuffix = 0;
+            baseForSuffix = baseForSuffix.substring(0, Math.min(baseForSuffix.length(), maxWithSuffix));
+            email = baseForSuffix + "." + suffixStr + DOMAIN;
+            suffix++;
+            if (suffix > MAX_SUFFIX) { // Prevenir loop infinito
+                email = UUID.randomUUID().toString().substring(0, 8) + DOMAIN;
+                break;
+            }
+        }
+
+        takenEmails.add(email);
+        return email;
+    }
+
+    /**
+     * Convierte un nombre de estudiante en la parte local de su email.
+     */
+    static String baseLocalPart(String studentName) {
+        String base = studentName.toLowerCase()
+                .replaceAll("[^a-z0-9\\s]", "") // Eliminar caracteres especiales excepto espacios
+                .trim()
+                .replaceAll("\\s+", "."); // Reemplazar espacios con puntos
+
+        if (base.length() > MAX_LOCAL_LENGTH) {
+            base = base.substring(0, MAX_LOCAL_LENGTH);
+        }
+        return base;
+    }
+}
@@ -0,0 +1,173 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.entities.StudentGrade;
+import gestor.calificaciones.gestorcalificaciones.entities.UuidV7Generator;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escritura masiva de calificaciones mediante {@code COPY} de PostgreSQL.
+ *
+ * <p>Las calificaciones se envían en streaming a una tabla temporal (las tablas
+ * temporales no generan WAL, igual que las {@code UNLOGGED}, y son privadas de
+ * la sesión) y después se fusionan con {@code student_grades} en una sola
+ * sentencia {@code INSERT ... ON CONFLICT}. Se usa la conexión de la
+ * transacción actual, por lo que la escritura se confirma o revierte junto con
+ * el resto de la importación.</p>
+ *
+ * <p>Antes de la fusión se leen y bloquean las calificaciones existentes que la
+ * carga va a sobrescribir, para que las estadísticas del curso puedan restar
+ * sus valores anteriores.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentGradeCopyWriter {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMP TABLE IF NOT EXISTS student_grades_staging (" +
+            "id uuid NOT NULL, student_id uuid NOT NULL, exercise_id uuid NOT NULL, " +
+            "score integer, status varchar(255) NOT NULL, submitted_at timestamp(6)) ON COMMIT DROP";
+
+    private static final String COPY_SQL =
+            "COPY student_grades_staging (id, student_id, exercise_id, score, status, submitted_at) " +
+            "FROM STDIN WITH (FORMAT csv)";
+
+    private static final String PREVIOUS_SQL =
+            "SELECT sg.id, sg.student_id, sg.exercise_id, sg.score, sg.status " +
+            "FROM student_grades sg JOIN student_grades_staging st " +
+            "ON st.student_id = sg.student_id AND st.exercise_id = sg.exercise_id " +
+            "FOR UPDATE OF sg";
+
+    // (xmax = 0) distingue las filas insertadas de las actualizadas por ON CONFLICT
+    private static final String MERGE_SQL =
+            "WITH merged AS (" +
+            "INSERT INTO student_grades AS sg " +
+            "(id, student_id, exercise_id, score, status, submitted_at, created_at, updated_at) " +
+            "SELECT id, student_id, exercise_id, score, status, submitted_at, LOCALTIMESTAMP, LOCALTIMESTAMP " +
+            "FROM student_grades_staging " +
+            "ON CONFLICT (student_id, exercise_id) DO UPDATE SET " +
+            "score = EXCLUDED.score, status = EXCLUDED.status, " +
+            "submitted_at = EXCLUDED.submitted_at, updated_at = EXCLUDED.updated_at " +
+            "WHERE sg.score IS DISTINCT FROM EXCLUDED.score OR sg.status IS DISTINCT FROM EXCLUDED.status " +
+            "RETURNING (xmax = 0) AS inserted) " +
+            "SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted) FROM merged";
+
+    private final DataSource dataSource;
+
+    /**
+     * Escribe las calificaciones indicadas, que no deben repetir el par
+     * (estudiante, ejercicio), y devuelve cuántas se insertaron, actualizaron
+     * o no cambiaron.
+     */
+    public CopyResult write(Collection<StudentGrade> grades) throws SQLException {
+        if (grades.isEmpty()) {
+            return new CopyResult(0, 0, 0, List.of());
+        }
+
+        long start = System.nanoTime();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING_SQL);
+                statement.execute("TRUNCATE student_grades_staging");
+            }
+
+            copyToStaging(connection, grades);
+            List<StudentGradeSnapshot> previous = readPrevious(connection);
+
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(MERGE_SQL)) {
+                resultSet.next();
+                int inserted = resultSet.getInt(1);
+                int updated = resultSet.getInt(2);
+                log.info("COPY de {} calificaciones en {} ms ({} nuevas, {} actualizadas)",
+                        grades.size(), (System.nanoTime() - start) / 1_000_000, inserted, updated);
+                return new CopyResult(inserted, updated, grades.size() - inserted - updated, previous);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void copyToStaging(Connection connection, Collection<StudentGrade> grades) throws SQLException {
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        try {
+            StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 256);
+            for (StudentGrade grade : grades) {
+                buffer.append(UuidV7Generator.nextUuid()).append(',')
+                        .append(grade.getStudent().getId()).append(',')
+                        .append(grade.getExercise().getId()).append(',');
+                if (grade.getScore() != null) {
+                    buffer.append(grade.getScore());
+                }
+                buffer.append(',').append(grade.getStatus().name()).append(',');
+                if (grade.getSubmittedAt() != null) {
+                    buffer.append(grade.getSubmittedAt());
+                }
+                buffer.append('\n');
+
+                if (buffer.length() >= COPY_BUFFER_SIZE) {
+                    writeToCopy(copyIn, buffer);
+                }
+            }
+            writeToCopy(copyIn, buffer);
+            copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private List<StudentGradeSnapshot> readPrevious(Connection connection) throws SQLException {
+        List<StudentGradeSnapshot> previous = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(PREVIOUS_SQL)) {
+            while (resultSet.next()) {
+                int value = resultSet.getInt(4);
+                // wasNull se refiere a la última columna leída: debe consultarse justo después del puntaje
+                Integer score = resultSet.wasNull() ? null : value;
+                previous.add(new StudentGradeSnapshot(
+                        resultSet.getObject(1, UUID.class),
+                        resultSet.getObject(2, UUID.class),
+                        resultSet.getObject(3, UUID.class),
+                        score,
+                        GradeStatus.valueOf(resultSet.getString(5))));
+            }
+        }
+        return previous;
+    }
+
+    private void writeToCopy(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    /**
+     * Resultado de la escritura; {@code previous} contiene los valores anteriores
+     * de las calificaciones que ya existían.
+     */
+    public record CopyResult(int inserted, int updated, int unchanged, List<StudentGradeSnapshot> previous) {
+    }
+}
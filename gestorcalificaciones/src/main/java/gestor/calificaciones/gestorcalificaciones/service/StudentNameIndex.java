@@ -0,0 +1,83 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.entities.Student;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice en memoria de estudiantes por nombre, válido durante una sola carga de CSV.
+ *
+ * <p>Los nombres se buscan en base de datos una única vez, en bloque, con una
+ * consulta por conjunto de nombres normalizados en minúsculas. Los estudiantes
+ * creados durante la carga se agregan al índice para que filas posteriores con
+ * el mismo nombre los reutilicen sin volver a consultar.</p>
+ */
+@Slf4j
+class StudentNameIndex {
+
+    private final StudentRepository studentRepository;
+    private final Map<String, Student> studentsByName = new HashMap<>();
+    private final Set<String> loadedNames = new HashSet<>();
+
+    StudentNameIndex(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    /**
+     * Carga con una sola consulta los estudiantes cuyos nombres aún no se
+     * han buscado en esta carga.
+     */
+    void preload(Collection<String> names) {
+        Set<String> pending = new HashSet<>();
+        for (String name : names) {
+            String key = normalize(name);
+            if (!loadedNames.contains(key)) {
+                pending.add(key);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (Student student : studentRepository.findByLowerCaseNameIn(pending)) {
+            studentsByName.putIfAbsent(normalize(student.getName()), student);
+        }
+        loadedNames.addAll(pending);
+        log.debug("Índice de estudiantes: {} nombres consultados, {} estudiantes indexados",
+                pending.size(), studentsByName.size());
+    }
+
+    Optional<Student> find(String name) {
+        return Optional.ofNullable(studentsByName.get(normalize(name)));
+    }
+
+    /**
+     * Olvida los nombres indicados para que la siguiente precarga los vuelva a
+     * consultar, por ejemplo después de revertir la transacción que creó sus estudiantes.
+     */
+    void forget(Collection<String> names) {
+        for (String name : names) {
+            String key = normalize(name);
+            studentsByName.remove(key);
+            loadedNames.remove(key);
+        }
+    }
+
+    void add(Student student) {
+        String key = normalize(student.getName());
+        studentsByName.put(key, student);
+        loadedNames.add(key);
+    }
+
+    static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,246 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformance;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformancePage;
+import gestor.calificaciones.gestorcalificaciones.enums.StudentPerformanceSort;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseContentCount;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseGradeStatsRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Rendimiento por estudiante de un curso, paginado por keyset.
+ *
+ * <p>Las filas salen de la tabla de estadísticas por (estudiante, curso), de
+ * modo que cada página cuesta una consulta acotada por su tamaño; un curso aún
+ * sin estadísticas agrupa sus calificaciones en la misma consulta. El cursor
+ * contiene los valores de orden de la última fila entregada más su id como
+ * desempate, y la página siguiente empieza estrictamente después de ellos: las
+ * páginas no se solapan ni saltan filas aunque haya empates. El promedio se
+ * compara como fracción exacta (suma y número de puntajes) multiplicando en
+ * cruz, sin redondeos.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StudentPerformanceService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // El promedio de un estudiante sin puntajes es 0, es decir la fracción 0/1
+    private static final String BASE_SQL =
+            "SELECT * FROM (" +
+            "SELECT s.id, COALESCE(s.name, '') AS name, s.email, " +
+            "COALESCE(st.correct_count, 0) AS correct_count, " +
+            "COALESCE(st.incorrect_count, 0) AS incorrect_count, " +
+            "COALESCE(st.pending_count, 0) AS pending_count, " +
+            "COALESCE(st.not_submitted_count, 0) AS not_submitted_count, " +
+            "COALESCE(st.correct_count + st.incorrect_count + st.pending_count, 0) AS submitted, " +
+            "CASE WHEN COALESCE(st.score_count, 0) = 0 THEN 0 ELSE st.score_sum END AS average_numerator, " +
+            "GREATEST(COALESCE(st.score_count, 0), 1) AS average_denominator " +
+            "FROM student_courses sc " +
+            "JOIN users s ON s.id = sc.student_id " +
+            "LEFT JOIN %s st " +
+            "ON st.student_id = sc.student_id AND st.course_id = sc.course_id " +
+            "WHERE sc.course_id = ? AND sc.is_active = true) p WHERE true";
+
+    // Mismas columnas que student_course_grade_stats, agrupadas desde las calificaciones del curso
+    private static final String GROUPED_GRADES_SQL =
+            "(SELECT sg.student_id, e.course_id, " +
+            "COUNT(*) FILTER (WHERE sg.status = 'CORRECT') AS correct_count, " +
+            "COUNT(*) FILTER (WHERE sg.status = 'INCORRECT') AS incorrect_count, " +
+            "COUNT(*) FILTER (WHERE sg.status = 'PENDING') AS pending_count, " +
+            "COUNT(*) FILTER (WHERE sg.status = 'NOT_SUBMITTED') AS not_submitted_count, " +
+            "COALESCE(SUM(sg.score), 0) AS score_sum, COUNT(sg.score) AS score_count " +
+            "FROM student_grades sg JOIN exercises e ON e.id = sg.exercise_id " +
+            "WHERE e.course_id = ? GROUP BY sg.student_id, e.course_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CourseRepository courseRepository;
+    private final CourseGradeStatsRepository courseGradeStatsRepository;
+
+    /**
+     * Devuelve una página de rendimiento por estudiante, o vacío si el curso no existe.
+     *
+     * @param completionBelow Si no es nulo, solo estudiantes con completitud menor a este porcentaje
+     * @param averageBelow Si no es nulo, solo estudiantes con promedio menor a este valor
+     * @param cursor Cursor de la página anterior, o nulo para la primera página
+     * @throws IllegalArgumentException Si el cursor no corresponde al orden pedido o el tamaño es inválido
+     */
+    public Optional<StudentPerformancePage> getPage(UUID courseId, StudentPerformanceSort sort, boolean descending,
+                                                    Double completionBelow, Double averageBelow,
+                                                    String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        List<CourseContentCount> counts = courseRepository.countContentByCourseIds(List.of(courseId));
+        if (counts.isEmpty()) {
+            return Optional.empty();
+        }
+        int totalExercises = counts.get(0).activeExercises().intValue();
+
+        // Un curso sin fila de estadísticas aún no se ha reconstruido: sus conteos se agrupan sin escribir nada
+        List<Object> args = new ArrayList<>();
+        String studentStats = "student_course_grade_stats";
+        if (!courseGradeStatsRepository.existsById(courseId)) {
+            studentStats = GROUPED_GRADES_SQL;
+            args.add(courseId);
+        }
+        StringBuilder sql = new StringBuilder(BASE_SQL.formatted(studentStats));
+        args.add(courseId);
+
+        if (completionBelow != null) {
+            // completitud = entregados / totalExercises * 100; sin ejercicios activos la completitud es 0
+            if (totalExercises > 0) {
+                sql.append(" AND p.submitted * 100.0 < ? * ?");
+                args.add(completionBelow);
+                args.add(totalExercises);
+            } else if (completionBelow <= 0) {
+                sql.append(" AND false");
+            }
+        }
+        if (averageBelow != null) {
+            sql.append(" AND p.average_numerator < ? * p.average_denominator");
+            args.add(averageBelow);
+        }
+
+        String direction = descending ? "DESC" : "ASC";
+        String after = descending ? "<" : ">";
+        if (cursor != null && !cursor.isBlank()) {
+            List<String> keys = decodeCursor(cursor, sort, descending);
+            try {
+                switch (sort) {
+                    case NAME -> {
+                        sql.append(" AND (p.name, p.id) ").append(after).append(" (?, ?)");
+                        args.add(keys.get(0));
+                        args.add(UUID.fromString(keys.get(1)));
+                    }
+                    case AVERAGE -> {
+                        long numerator = Long.parseLong(keys.get(0));
+                        long denominator = Long.parseLong(keys.get(1));
+                        UUID id = UUID.fromString(keys.get(2));
+                        sql.append(" AND (p.average_numerator * ? ").append(after).append(" ? * p.average_denominator")
+                                .append(" OR (p.average_numerator * ? = ? * p.average_denominator AND p.id ")
+                                .append(after).append(" ?))");
+                        args.add(denominator);
+                        args.add(numerator);
+                        args.add(denominator);
+                        args.add(numerator);
+                        args.add(id);
+                    }
+                    case COMPLETION -> {
+                        sql.append(" AND (p.submitted, p.id) ").append(after).append(" (?, ?)");
+                        args.add(Integer.parseInt(keys.get(0)));
+                        args.add(UUID.fromString(keys.get(1)));
+                    }
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+
+        sql.append(switch (sort) {
+            case NAME -> " ORDER BY p.name " + direction;
+            // Fracciones iguales dan el mismo double, y las distintas se separan mucho más que su precisión
+            case AVERAGE -> " ORDER BY p.average_numerator::float8 / p.average_denominator " + direction;
+            case COMPLETION -> " ORDER BY p.submitted " + direction;
+        });
+        sql.append(", p.id ").append(direction).append(" LIMIT ?");
+        // Una fila extra indica si hay página siguiente
+        args.add(pageSize + 1);
+
+        List<PerformanceRow> rows = jdbcTemplate.query(sql.toString(), (resultSet, rowNum) -> new PerformanceRow(
+                resultSet.getObject("id", UUID.class),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getInt("correct_count"),
+                resultSet.getInt("incorrect_count"),
+                resultSet.getInt("pending_count"),
+                resultSet.getInt("not_submitted_count"),
+                resultSet.getInt("submitted"),
+                resultSet.getLong("average_numerator"),
+                resultSet.getLong("average_denominator")), args.toArray());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<PerformanceRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+        List<StudentPerformance> students = page.stream()
+                .map(row -> row.toPerformance(totalExercises))
+                .toList();
+        String nextCursor = hasMore ? encodeCursor(sort, descending, page.get(page.size() - 1).cursorKeys(sort)) : null;
+
+        return Optional.of(StudentPerformancePage.builder()
+                .courseId(courseId.toString())
+                .sort(sort.name().toLowerCase())
+                .direction(direction.toLowerCase())
+                .totalExercises(totalExercises)
+                .students(students)
+                .nextCursor(nextCursor)
+                .build());
+    }
+
+    /**
+     * Cursor con el orden de la página y las claves de su última fila, cada una
+     * en Base64 URL-safe para que el nombre pueda contener cualquier carácter.
+     */
+    static String encodeCursor(StudentPerformanceSort sort, boolean descending, List<String> keys) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        StringBuilder cursor = new StringBuilder(cursorPrefix(sort, descending));
+        for (String key : keys) {
+            cursor.append('.').append(encoder.encodeToString(key.getBytes(StandardCharsets.UTF_8)));
+        }
+        return cursor.toString();
+    }
+
+    /**
+     * Claves de un cursor emitido por {@link #encodeCursor}.
+     *
+     * @throws IllegalArgumentException Si el cursor no corresponde al orden indicado o está mal formado
+     */
+    static List<String> decodeCursor(String cursor, StudentPerformanceSort sort, boolean descending) {
+        String[] parts = cursor.split("\\.", -1);
+        if (!parts[0].equals(cursorPrefix(sort, descending))) {
+            throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+        }
+        List<String> keys = new ArrayList<>(parts.length - 1);
+        for (int i = 1; i < parts.length; i++) {
+            keys.add(new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8));
+        }
+        return keys;
+    }
+
+    private static String cursorPrefix(StudentPerformanceSort sort, boolean descending) {
+        return sort.name().toLowerCase() + (descending ? "-desc" : "-asc");
+    }
+
+    private record PerformanceRow(UUID id, String name, String email, int correct, int incorrect, int pending,
+                                  int notSubmitted, int submitted, long averageNumerator, long averageDenominator) {
+
+        List<String> cursorKeys(StudentPerformanceSort sort) {
+            return switch (sort) {
+                case NAME -> List.of(name, id.toString());
+                case AVERAGE -> List.of(String.valueOf(averageNumerator), String.valueOf(averageDenominator),
+                        id.toString());
+                case COMPLETION -> List.of(String.valueOf(submitted), id.toString());
+            };
+        }
+
+        // Mismos cálculos que las estadísticas completas del curso
+        StudentPerformance toPerformance(int totalExercises) {
+            double completionPercentage = totalExercises > 0 ?
+                    ((double) submitted / totalExercises) * 100 : 0.0;
+            return new StudentPerformance(name, email, totalExercises, correct, incorrect, pending, notSubmitted,
+                    (double) averageNumerator / averageDenominator, completionPercentage);
+        }
+    }
+}
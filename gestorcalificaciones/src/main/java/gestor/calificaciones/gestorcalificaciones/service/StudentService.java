@@ -20,6 +20,7 @@ public class StudentService {
 
     private final StudentRepository studentRepository;
     private final StudentGradeRepository studentGradeRepository;
+    private final CourseGradeMatrixCache courseGradeMatrixCache;
     private final StudentCourseRepository studentCourseRepository;
     private final ExerciseRepository exerciseRepository;
 
@@ -49,36 +50,24 @@ public class StudentService {
                 .map(StudentCourse::getCourse)
                 .orElseThrow(() -> new RuntimeException("El estudiante no está inscrito en este curso"));
         
-        List<StudentGrade> studentGrades = studentGradeRepository.findByStudentIdAndCourseId(studentId, courseId);
+        CourseGradeMatrix.StudentRow grades = studentGrades(studentId, courseId);
         List<Exercise> exercises = exerciseRepository.findActiveExercisesByCourseId(courseId);
         
         // Calcular estadísticas
         int totalExercises = exercises.size();
-        int correctCount = (int) studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.CORRECT)
-                .count();
-        int incorrectCount = (int) studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.INCORRECT)
-                .count();
-        int pendingCount = (int) studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.PENDING)
-                .count();
-        int notSubmittedCount = (int) studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.NOT_SUBMITTED)
-                .count();
-        
-        double averageScore = studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.CORRECT && grade.getScore() != null)
-                .mapToInt(StudentGrade::getScore)
-                .average()
-                .orElse(0.0);
+        int correctCount = grades.count(GradeStatus.CORRECT);
+        int incorrectCount = grades.count(GradeStatus.INCORRECT);
+        int pendingCount = grades.count(GradeStatus.PENDING);
+        int notSubmittedCount = grades.count(GradeStatus.NOT_SUBMITTED);
+        
+        double averageScore = grades.averageScore(GradeStatus.CORRECT);
         
         double completionPercentage = totalExercises > 0 ? 
                 ((double) (correctCount + incorrectCount + pendingCount) / totalExercises) * 100 : 0.0;
         
         // Mapear calificaciones de ejercicios
         List<ExerciseGrade> exerciseGrades = exercises.stream()
-                .map(exercise -> mapToExerciseGrade(exercise, studentGrades))
+                .map(exercise -> mapToExerciseGrade(exercise, grades))
                 .collect(Collectors.toList());
         
         return StudentGradeResponse.builder()
@@ -111,19 +100,12 @@ public class StudentService {
 
     private CourseSummary mapToCourseSummary(StudentCourse studentCourse) {
         Course course = studentCourse.getCourse();
-        List<StudentGrade> studentGrades = studentGradeRepository
-                .findByStudentIdAndCourseId(studentCourse.getStudent().getId(), course.getId());
+        CourseGradeMatrix.StudentRow grades = studentGrades(studentCourse.getStudent().getId(), course.getId());
         
         int totalExercises = exerciseRepository.findActiveExercisesByCourseId(course.getId()).size();
-        int completedExercises = (int) studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.CORRECT || grade.getStatus() == GradeStatus.INCORRECT)
-                .count();
+        int completedExercises = grades.count(GradeStatus.CORRECT) + grades.count(GradeStatus.INCORRECT);
         
-        double averageScore = studentGrades.stream()
-                .filter(grade -> grade.getStatus() == GradeStatus.CORRECT && grade.getScore() != null)
-                .mapToInt(StudentGrade::getScore)
-                .average()
-                .orElse(0.0);
+        double averageScore = grades.averageScore(GradeStatus.CORRECT);
         
         double completionPercentage = totalExercises > 0 ? 
                 ((double) completedExercises / totalExercises) * 100 : 0.0;
@@ -141,13 +123,21 @@ public class StudentService {
         );
     }
 
-    private ExerciseGrade mapToExerciseGrade(Exercise exercise, List<StudentGrade> studentGrades) {
-        StudentGrade studentGrade = studentGrades.stream()
-                .filter(grade -> grade.getExercise().getId().equals(exercise.getId()))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Calificaciones del estudiante en el curso: desde la matriz del curso si
+     * está en memoria, o con una consulta solo de sus calificaciones.
+     */
+    private CourseGradeMatrix.StudentRow studentGrades(UUID studentId, UUID courseId) {
+        return courseGradeMatrixCache.find(courseId)
+                .orElseGet(() -> CourseGradeMatrix.ofStudent(studentId,
+                        studentGradeRepository.findByStudentIdAndCourseId(studentId, courseId)))
+                .studentRow(studentId);
+    }
+
+    private ExerciseGrade mapToExerciseGrade(Exercise exercise, CourseGradeMatrix.StudentRow grades) {
+        GradeStatus status = grades.status(exercise.getId());
         
-        if (studentGrade == null) {
+        if (status == null) {
             return new ExerciseGrade(
                     exercise.getId().toString(),
                     exercise.getName(),
@@ -162,10 +152,10 @@ public class StudentService {
         return new ExerciseGrade(
                 exercise.getId().toString(),
                 exercise.getName(),
-                studentGrade.getScore(),
-                studentGrade.getStatus().name(),
-                studentGrade.getStatus().getDescription(),
-                studentGrade.getSubmittedAt(),
+                grades.score(exercise.getId()),
+                status.name(),
+                status.getDescription(),
+                grades.submittedAt(exercise.getId()),
                 exercise.getMaxScore()
         );
     }
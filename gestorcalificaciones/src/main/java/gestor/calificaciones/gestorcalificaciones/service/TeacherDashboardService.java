@@ -0,0 +1,138 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseDashboardSummary;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseStatisticsResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformance;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.TeacherDashboardResponse;
+import gestor.calificaciones.gestorcalificaciones.entities.Course;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Panel del profesor: un resumen por cada uno de sus cursos activos.
+ *
+ * <p>Los resúmenes se calculan en paralelo, un hilo virtual por curso, a partir
+ * de las estadísticas de cada curso (servidas desde la caché por versión cuando
+ * el curso no ha cambiado). Un semáforo compartido por todas las peticiones
+ * limita los cálculos simultáneos a las conexiones de Hikari, para que el panel
+ * no agote el pool; así la latencia total se acerca a la del curso más lento
+ * en lugar de la suma de todos.</p>
+ *
+ * <p>Un estudiante está en riesgo si su promedio es menor a
+ * {@code dashboard.at-risk.max-average} o su porcentaje de completitud es menor
+ * a {@code dashboard.at-risk.min-completion}.</p>
+ */
+@Service
+@Slf4j
+public class TeacherDashboardService {
+
+    private final CourseRepository courseRepository;
+    private final CourseStatisticsService courseStatisticsService;
+    private final Semaphore permits;
+    private final double atRiskMaxAverage;
+    private final double atRiskMinCompletion;
+
+    public TeacherDashboardService(CourseRepository courseRepository,
+                                   CourseStatisticsService courseStatisticsService,
+                                   @Value("${dashboard.parallelism:0}") int parallelism,
+                                   @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                                   @Value("${dashboard.at-risk.max-average:60}") double atRiskMaxAverage,
+                                   @Value("${dashboard.at-risk.min-completion:50}") double atRiskMinCompletion) {
+        this.courseRepository = courseRepository;
+        this.courseStatisticsService = courseStatisticsService;
+        // Por defecto se deja una conexión libre para el resto de peticiones
+        this.permits = new Semaphore(parallelism > 0 ? parallelism : Math.max(1, connectionPoolSize - 1), true);
+        this.atRiskMaxAverage = atRiskMaxAverage;
+        this.atRiskMinCompletion = atRiskMinCompletion;
+    }
+
+    public TeacherDashboardResponse getDashboard(UUID teacherId) {
+        long startTime = System.currentTimeMillis();
+        List<Course> courses = courseRepository.findActiveCoursesByTeacherId(teacherId);
+
+        List<CourseDashboardSummary> summaries = new ArrayList<>(courses.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<CourseDashboardSummary>> results = new ArrayList<>(courses.size());
+            for (Course course : courses) {
+                results.add(executor.submit(() -> summarizeWithPermit(course)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                summaries.add(await(results.get(i), courses.get(i)));
+            }
+        }
+
+        int totalStudents = summaries.stream().mapToInt(CourseDashboardSummary::getTotalStudents).sum();
+        int atRiskStudents = summaries.stream().mapToInt(CourseDashboardSummary::getAtRiskStudents).sum();
+        log.info("Panel del profesor {}: {} cursos en {} ms", teacherId, courses.size(),
+                System.currentTimeMillis() - startTime);
+
+        return TeacherDashboardResponse.builder()
+                .totalCourses(courses.size())
+                .totalStudents(totalStudents)
+                .atRiskStudents(atRiskStudents)
+                .atRiskMaxAverage(atRiskMaxAverage)
+                .atRiskMinCompletion(atRiskMinCompletion)
+                .courses(summaries)
+                .build();
+    }
+
+    private CourseDashboardSummary summarizeWithPermit(Course course) throws InterruptedException {
+        permits.acquire();
+        try {
+            return summarize(course, courseStatisticsService.getCourseStatistics(course.getId()));
+        } finally {
+            permits.release();
+        }
+    }
+
+    private CourseDashboardSummary summarize(Course course, CourseStatisticsResponse statistics) {
+        List<StudentPerformance> students = statistics.getStudentPerformance();
+        double averageCompletion = students.stream()
+                .mapToDouble(StudentPerformance::getCompletionPercentage)
+                .average()
+                .orElse(0.0);
+        int atRisk = (int) students.stream()
+                .filter(student -> student.getAverageScore() < atRiskMaxAverage
+                        || student.getCompletionPercentage() < atRiskMinCompletion)
+                .count();
+
+        return CourseDashboardSummary.builder()
+                .courseId(course.getId().toString())
+                .courseName(course.getName())
+                .courseCode(course.getCourseCode())
+                .totalStudents(statistics.getTotalStudents())
+                .totalExercises(statistics.getTotalExercises())
+                .averageScore(statistics.getAverageScore())
+                .averageCompletion(averageCompletion)
+                .atRiskStudents(atRisk)
+                .build();
+    }
+
+    private CourseDashboardSummary await(Future<CourseDashboardSummary> result, Course course) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Cálculo del panel interrumpido", e);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Error calculando el resumen del curso {}: {}", course.getId(), cause.getMessage(), cause);
+            return CourseDashboardSummary.builder()
+                    .courseId(course.getId().toString())
+                    .courseName(course.getName())
+                    .courseCode(course.getCourseCode())
+                    .error("Error calculando el resumen: " + cause.getMessage())
+                    .build();
+        }
+    }
+}
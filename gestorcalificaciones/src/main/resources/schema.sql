@@ -0,0 +1,85 @@
+-- Se ejecuta al iniciar, antes de que Hibernate actualice el esquema (ddl-auto=update).
+--
+-- Hibernate solo puede crear las restricciones únicas de users, exercises,
+-- student_courses y student_grades si no hay filas repetidas; si falla, lo
+-- registra y continúa, y las cargas que dependen de ellas (ON CONFLICT) fallan
+-- después. Cada bloque elimina los repetidos de una tabla solo mientras su
+-- restricción aún no existe, de modo que en una base ya migrada no hace nada.
+-- Las sentencias se separan con ^; porque los bloques DO contienen ';'.
+
+-- users: el índice uk_users_email exige emails únicos. Los repetidos reciben
+-- un sufijo con el inicio de su id; se conserva el email del primer id.
+DO $$
+BEGIN
+    IF to_regclass('users') IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_users_email') THEN
+        UPDATE users u
+        SET email = left(split_part(u.email, '@', 1), 240 - 9) || '.' || left(u.id::text, 8)
+                || '@' || split_part(u.email, '@', 2)
+        FROM (SELECT id, ROW_NUMBER() OVER (PARTITION BY email ORDER BY id) AS position
+              FROM users WHERE email IS NOT NULL) repeated
+        WHERE u.id = repeated.id AND repeated.position > 1;
+    END IF;
+END $$^;
+
+-- exercises: un nombre por curso. Las calificaciones de los ejercicios
+-- repetidos pasan al primero creado; los repetidos de student_grades que esto
+-- produzca se eliminan en el bloque de student_grades.
+DO $$
+BEGIN
+    IF to_regclass('exercises') IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_exercises_course_name') THEN
+        CREATE TEMPORARY TABLE exercise_duplicates ON COMMIT DROP AS
+        SELECT id, first_value(id) OVER (PARTITION BY course_id, name ORDER BY created_at NULLS LAST, id) AS kept_id
+        FROM exercises;
+        DELETE FROM exercise_duplicates WHERE id = kept_id;
+
+        IF to_regclass('student_grades') IS NOT NULL THEN
+            UPDATE student_grades sg SET exercise_id = d.kept_id
+            FROM exercise_duplicates d WHERE sg.exercise_id = d.id;
+        END IF;
+        -- Las estadísticas de los cursos afectados se reconstruyen al terminar el inicio
+        IF to_regclass('course_grade_stats') IS NOT NULL THEN
+            DELETE FROM course_grade_stats WHERE course_id IN (
+                SELECT e.course_id FROM exercises e JOIN exercise_duplicates d ON d.id = e.id);
+            DELETE FROM exercise_grade_stats WHERE exercise_id IN (SELECT id FROM exercise_duplicates);
+            DELETE FROM exercise_score_buckets WHERE exercise_id IN (SELECT id FROM exercise_duplicates);
+        END IF;
+        DELETE FROM exercises WHERE id IN (SELECT id FROM exercise_duplicates);
+    END IF;
+END $$^;
+
+-- student_courses: una inscripción por estudiante y curso; se conserva la
+-- activa más antigua.
+DO $$
+BEGIN
+    IF to_regclass('student_courses') IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_student_courses_student_course') THEN
+        DELETE FROM student_courses sc
+        USING (SELECT id, ROW_NUMBER() OVER (PARTITION BY student_id, course_id
+                       ORDER BY is_active IS TRUE DESC, enrolled_at NULLS LAST, id) AS position
+               FROM student_courses) repeated
+        WHERE sc.id = repeated.id AND repeated.position > 1;
+    END IF;
+END $$^;
+
+-- student_grades: una calificación por estudiante y ejercicio; se conserva la
+-- actualizada más recientemente, que corresponde a la última carga.
+DO $$
+BEGIN
+    IF to_regclass('student_grades') IS NOT NULL
+            AND NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_student_grades_student_exercise') THEN
+        CREATE TEMPORARY TABLE grade_duplicates ON COMMIT DROP AS
+        SELECT id, exercise_id FROM (
+            SELECT id, exercise_id, ROW_NUMBER() OVER (PARTITION BY student_id, exercise_id
+                    ORDER BY updated_at DESC NULLS LAST, created_at DESC NULLS LAST, id DESC) AS position
+            FROM student_grades) ranked
+        WHERE position > 1;
+
+        IF to_regclass('course_grade_stats') IS NOT NULL THEN
+            DELETE FROM course_grade_stats WHERE course_id IN (
+                SELECT e.course_id FROM exercises e JOIN grade_duplicates d ON d.exercise_id = e.id);
+        END IF;
+        DELETE FROM student_grades WHERE id IN (SELECT id FROM grade_duplicates);
+    END IF;
+END $$^;
@@ -0,0 +1,30 @@
+package gestor.calificaciones.gestorcalificaciones;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base de las pruebas que necesitan PostgreSQL (COPY, ON CONFLICT, bloqueos
+ * consultivos): levantan la aplicación contra un contenedor compartido por
+ * todas las clases de prueba. Sin Docker las pruebas se omiten.
+ */
+@SpringBootTest
+@Import(PostgresIntegrationTest.PostgresContainer.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+	@TestConfiguration(proxyBeanMethods = false)
+	static class PostgresContainer {
+
+		@Bean
+		@ServiceConnection
+		PostgreSQLContainer<?> postgres() {
+			return new PostgreSQLContainer<>("postgres:16-alpine");
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package gestor.calificaciones.gestorcalificaciones;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.enums.Role;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import gestor.calificaciones.gestorcalificaciones.service.CsvProcessingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * schema.sql se ejecuta en cada inicio: sobre una base ya migrada no debe
+ * cambiar nada, y mientras falta una restricción debe dejar la tabla sin
+ * repetidos para que Hibernate pueda crearla.
+ */
+class SchemaInitializationIntegrationTest extends PostgresIntegrationTest {
+
+	private static final List<String> TABLES = List.of("users", "exercises", "student_courses", "student_grades");
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private UUID courseId;
+
+	@BeforeEach
+	void importSheet() {
+		Teacher teacher = new Teacher();
+		String code = "T" + UUID.randomUUID().toString().substring(0, 8);
+		teacher.setName("Profesor " + code);
+		teacher.setEmail(UUID.randomUUID() + "@profesor.com");
+		teacher.setPassword("x");
+		teacher.setRole(Role.TEACHER);
+		teacher = teacherRepository.save(teacher);
+		String sheet = "Student Name;Ejercicio 1;Ejercicio 2\n"
+				+ code + " Ana;70;80\n"
+				+ code + " Luis;60;Not Submitted\n";
+		CsvUploadResponse response = csvProcessingService.processCsvFile(
+				new MockMultipartFile("file", "notas.csv", "text/csv", sheet.getBytes(StandardCharsets.UTF_8)),
+				CsvUploadRequest.builder().courseCode(code).courseName("Curso " + code).build(),
+				teacher.getId());
+		courseId = UUID.fromString(response.getCourseId());
+	}
+
+	@Test
+	void secondStartupLeavesAMigratedDatabaseUnchanged() {
+		List<String> before = snapshot();
+
+		DatabasePopulatorUtils.execute(schemaScript(), dataSource);
+
+		assertThat(snapshot()).isEqualTo(before);
+	}
+
+	@Test
+	void mergesRepeatedExercisesAndGradesWhileTheirConstraintsAreMissing() {
+		transactionTemplate.executeWithoutResult(status -> {
+			jdbcTemplate.execute("ALTER TABLE exercises DROP CONSTRAINT uk_exercises_course_name");
+			jdbcTemplate.execute("ALTER TABLE student_grades DROP CONSTRAINT uk_student_grades_student_exercise");
+			UUID kept = exerciseId("Ejercicio 1");
+			UUID repeated = UUID.randomUUID();
+			jdbcTemplate.update("INSERT INTO exercises (id, name, max_score, course_id, created_at, is_active) "
+					+ "SELECT ?, name, max_score, course_id, created_at + interval '1 day', is_active "
+					+ "FROM exercises WHERE id = ?", repeated, kept);
+			// Una calificación más reciente de Ana en el ejercicio repetido
+			jdbcTemplate.update("INSERT INTO student_grades (id, student_id, exercise_id, score, status, created_at, updated_at) "
+					+ "SELECT ?, student_id, ?, 99, status, created_at, updated_at + interval '1 day' "
+					+ "FROM student_grades WHERE exercise_id = ? AND score = 70", UUID.randomUUID(), repeated, kept);
+
+			DatabasePopulatorUtils.execute(schemaScript(), dataSource);
+
+			assertThat(jdbcTemplate.queryForList("SELECT id FROM exercises WHERE course_id = ? AND name = 'Ejercicio 1'",
+					UUID.class, courseId)).containsExactly(kept);
+			assertThat(jdbcTemplate.queryForList("SELECT score FROM student_grades WHERE exercise_id = ? ORDER BY score",
+					Integer.class, kept)).containsExactly(60, 99);
+			// Las restricciones eliminadas no se restauran aquí: se revierte todo
+			status.setRollbackOnly();
+		});
+	}
+
+	private UUID exerciseId(String name) {
+		return jdbcTemplate.queryForObject("SELECT id FROM exercises WHERE course_id = ? AND name = ?",
+				UUID.class, courseId, name);
+	}
+
+	private List<String> snapshot() {
+		return TABLES.stream()
+				.map(table -> jdbcTemplate.queryForObject(
+						"SELECT COUNT(*) || ':' || COALESCE(md5(string_agg(t::text, ',' ORDER BY t.id)), '') FROM "
+								+ table + " t", String.class))
+				.toList();
+	}
+
+	private static ResourceDatabasePopulator schemaScript() {
+		ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+		populator.setSeparator("^;");
+		return populator;
+	}
+}
@@ -0,0 +1,76 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+	@Test
+	void setsVersionAndVariantBits() {
+		UUID uuid = UuidV7Generator.nextUuid();
+
+		assertThat(uuid.version()).isEqualTo(7);
+		assertThat(uuid.variant()).isEqualTo(2);
+	}
+
+	@Test
+	void storesCurrentTimeInMostSignificantBits() {
+		long before = System.currentTimeMillis();
+		UUID uuid = UuidV7Generator.nextUuid();
+		long after = System.currentTimeMillis();
+
+		long timestamp = uuid.getMostSignificantBits() >>> 16;
+		// El contador agotado puede adelantar el instante algunos milisegundos
+		assertThat(timestamp).isBetween(before, after + 100);
+	}
+
+	@Test
+	void generatesStrictlyIncreasingIds() {
+		// Más ids que valores del contador de 12 bits, para que varios compartan milisegundo
+		List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 50_000; i++) {
+			ids.add(UuidV7Generator.nextUuid());
+		}
+
+		for (int i = 1; i < ids.size(); i++) {
+			assertThat(compareUnsigned(ids.get(i - 1), ids.get(i))).isNegative();
+		}
+	}
+
+	@Test
+	void generatesUniqueIdsAcrossThreads() throws InterruptedException {
+		ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			threads.add(Thread.ofPlatform().start(() -> {
+				for (int i = 0; i < 10_000; i++) {
+					ids.add(UuidV7Generator.nextUuid());
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Set<UUID> unique = new HashSet<>(ids);
+		assertThat(unique).hasSize(80_000);
+		List<Long> prefixes = new ArrayList<>();
+		ids.forEach(id -> prefixes.add(id.getMostSignificantBits()));
+		// Instante y contador son únicos por id aunque se generen en paralelo
+		assertThat(new HashSet<>(prefixes)).hasSize(80_000);
+	}
+
+	// Orden de PostgreSQL para uuid: bytes sin signo, de izquierda a derecha
+	private static int compareUnsigned(UUID a, UUID b) {
+		int most = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+		return most != 0 ? most : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+	}
+}
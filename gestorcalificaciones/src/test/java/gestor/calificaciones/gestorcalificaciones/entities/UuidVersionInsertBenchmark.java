@@ -0,0 +1,70 @@
+package gestor.calificaciones.gestorcalificaciones.entities;
+
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserta las mismas filas en dos copias de {@code student_grades}, una con
+ * claves UUIDv4 y otra con UUIDv7, e informa el rendimiento y el tamaño del
+ * índice de la clave primaria. Se ejecuta con {@code mvn -Pbenchmark test}.
+ */
+class UuidVersionInsertBenchmark extends PostgresIntegrationTest {
+
+	private static final int ROWS = 500_000;
+	private static final int BATCH_SIZE = 1_000;
+	private static final List<String> TABLES = List.of("uuid_benchmark_v4", "uuid_benchmark_v7");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void dropTables() {
+		TABLES.forEach(table -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + table));
+	}
+
+	@Test
+	void compareKeyVersions() {
+		System.out.printf("%-7s %12s %14s%n", "versión", "filas/s", "índice pkey MB");
+		report("v4", insert("uuid_benchmark_v4", UUID::randomUUID));
+		report("v7", insert("uuid_benchmark_v7", UuidV7Generator::nextUuid));
+	}
+
+	private long[] insert(String table, Supplier<UUID> ids) {
+		// Las mismas columnas e índices que student_grades, sin claves foráneas
+		jdbcTemplate.execute("CREATE TABLE " + table + " (id uuid PRIMARY KEY, student_id uuid NOT NULL, "
+				+ "exercise_id uuid NOT NULL, score integer, status varchar(255) NOT NULL, "
+				+ "created_at timestamp(6), updated_at timestamp(6), UNIQUE (student_id, exercise_id))");
+		String sql = "INSERT INTO " + table + " (id, student_id, exercise_id, score, status, created_at, updated_at) "
+				+ "VALUES (?, ?, ?, ?, 'CORRECT', LOCALTIMESTAMP, LOCALTIMESTAMP)";
+		UUID exerciseId = UUID.randomUUID();
+
+		long start = System.nanoTime();
+		for (int inserted = 0; inserted < ROWS; inserted += BATCH_SIZE) {
+			List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+			for (int row = 0; row < BATCH_SIZE; row++) {
+				batch.add(new Object[]{ids.get(), UUID.randomUUID(), exerciseId, (inserted + row) % 101});
+			}
+			jdbcTemplate.batchUpdate(sql, batch);
+		}
+		long nanos = System.nanoTime() - start;
+
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class)).isEqualTo(ROWS);
+		long indexBytes = jdbcTemplate.queryForObject("SELECT pg_relation_size(?::regclass)", Long.class,
+				table + "_pkey");
+		return new long[]{ROWS * 1_000_000_000L / nanos, indexBytes};
+	}
+
+	private static void report(String version, long[] result) {
+		System.out.printf("%-7s %12d %14.1f%n", version, result[0], result[1] / (1024.0 * 1024.0));
+	}
+}
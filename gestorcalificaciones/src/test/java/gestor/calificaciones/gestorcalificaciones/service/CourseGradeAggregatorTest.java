@@ -0,0 +1,114 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseScoreDistribution;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.ExerciseStatistics;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformance;
+import gestor.calificaciones.gestorcalificaciones.entities.GradeCounters;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import gestor.calificaciones.gestorcalificaciones.repository.EnrolledStudentSummary;
+import gestor.calificaciones.gestorcalificaciones.repository.ExerciseSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseGradeAggregatorTest {
+
+	private final ExerciseSummary exercise1 = new ExerciseSummary(UUID.randomUUID(), "Ejercicio 1");
+	private final ExerciseSummary exercise2 = new ExerciseSummary(UUID.randomUUID(), "Ejercicio 2");
+	private final EnrolledStudentSummary ana = new EnrolledStudentSummary(UUID.randomUUID(), "Ana", "ana@estudiante.com");
+	private final EnrolledStudentSummary luis = new EnrolledStudentSummary(UUID.randomUUID(), "Luis", "luis@estudiante.com");
+
+	@Test
+	void aggregatesExerciseCountsAndAverages() {
+		CourseGradeAggregator aggregator = new CourseGradeAggregator(List.of(exercise1, exercise2), List.of(ana));
+		aggregator.addExercise(exercise1.id(), counters(2, 1, 0, 1, 270, 3));
+		aggregator.addExercise(exercise2.id(), counters(0, 0, 1, 3, 0, 0));
+
+		List<ExerciseStatistics> statistics = aggregator.exerciseStatistics();
+
+		assertThat(statistics).extracting(ExerciseStatistics::getExerciseName).containsExactly("Ejercicio 1", "Ejercicio 2");
+		ExerciseStatistics first = statistics.get(0);
+		assertThat(first.getTotalSubmissions()).isEqualTo(4);
+		assertThat(first.getCorrectSubmissions()).isEqualTo(2);
+		assertThat(first.getIncorrectSubmissions()).isEqualTo(1);
+		assertThat(first.getNotSubmittedCount()).isEqualTo(1);
+		assertThat(first.getAverageScore()).isEqualTo(90.0);
+		assertThat(statistics.get(1).getAverageScore()).isZero();
+	}
+
+	@Test
+	void countsExercisesWithEachStatusIncludingInactiveOnes() {
+		CourseGradeAggregator aggregator = new CourseGradeAggregator(List.of(exercise1), List.of());
+		aggregator.addExercise(exercise1.id(), counters(1, 0, 0, 2, 80, 1));
+		// Ejercicio inactivo: no aparece en la lista pero cuenta en los ejercicios con entregas
+		aggregator.addExercise(UUID.randomUUID(), counters(3, 1, 0, 0, 300, 4));
+
+		assertThat(aggregator.exercisesWithStatus(GradeStatus.CORRECT)).isEqualTo(2);
+		assertThat(aggregator.exercisesWithStatus(GradeStatus.INCORRECT)).isEqualTo(1);
+		assertThat(aggregator.exercisesWithStatus(GradeStatus.PENDING)).isZero();
+		assertThat(aggregator.exercisesWithStatus(GradeStatus.NOT_SUBMITTED)).isEqualTo(1);
+		assertThat(aggregator.exerciseStatistics()).hasSize(1);
+	}
+
+	@Test
+	void computesStudentPerformanceAndIgnoresUnenrolledStudents() {
+		CourseGradeAggregator aggregator = new CourseGradeAggregator(List.of(exercise1, exercise2), List.of(ana, luis));
+		aggregator.addStudent(ana.id(), counters(1, 0, 1, 0, 95, 1));
+		aggregator.addStudent(UUID.randomUUID(), counters(2, 0, 0, 0, 200, 2));
+
+		List<StudentPerformance> performance = aggregator.studentPerformance(4);
+
+		assertThat(performance).extracting(StudentPerformance::getStudentName).containsExactly("Ana", "Luis");
+		StudentPerformance first = performance.get(0);
+		assertThat(first.getCorrectCount()).isEqualTo(1);
+		assertThat(first.getPendingCount()).isEqualTo(1);
+		assertThat(first.getAverageScore()).isEqualTo(95.0);
+		// Correctas, incorrectas y pendientes cuentan como completadas
+		assertThat(first.getCompletionPercentage()).isEqualTo(50.0);
+		assertThat(performance.get(1).getCorrectCount()).isZero();
+		assertThat(performance.get(1).getCompletionPercentage()).isZero();
+	}
+
+	@Test
+	void completionIsZeroWithoutActiveExercises() {
+		CourseGradeAggregator aggregator = new CourseGradeAggregator(List.of(), List.of(ana));
+		aggregator.addStudent(ana.id(), counters(1, 0, 0, 0, 90, 1));
+
+		assertThat(aggregator.studentPerformance(0).get(0).getCompletionPercentage()).isZero();
+	}
+
+	@Test
+	void repeatedStudentSharesCountsOfFirstAppearance() {
+		CourseGradeAggregator aggregator = new CourseGradeAggregator(List.of(exercise1), List.of(ana, ana));
+		aggregator.addStudent(ana.id(), counters(1, 0, 0, 0, 100, 1));
+
+		assertThat(aggregator.studentPerformance(1)).extracting(StudentPerformance::getCorrectCount).containsExactly(1, 1);
+	}
+
+	@Test
+	void buildsScoreDistributionsPerExerciseAndCourse() {
+		CourseGradeAggregator aggregator = new CourseGradeAggregator(List.of(exercise1, exercise2), List.of());
+		aggregator.addScoreBucket(exercise1.id(), 60, 2);
+		aggregator.addScoreBucket(exercise1.id(), 100, 2);
+		aggregator.addScoreBucket(exercise2.id(), 40, 1);
+		// Puntajes de un ejercicio inactivo solo cuentan en el curso
+		aggregator.addScoreBucket(UUID.randomUUID(), 150, 1);
+
+		CourseScoreDistribution distribution = aggregator.scoreDistribution();
+
+		assertThat(distribution.getCourse().getScoredCount()).isEqualTo(6);
+		assertThat(distribution.getCourse().getMinScore()).isEqualTo(40);
+		assertThat(distribution.getCourse().getMaxScore()).isEqualTo(100);
+		assertThat(distribution.getExercises()).hasSize(2);
+		assertThat(distribution.getExercises().get(0).getDistribution().getMedian()).isEqualTo(80.0);
+		assertThat(distribution.getExercises().get(1).getDistribution().getScoredCount()).isEqualTo(1);
+	}
+
+	private static GradeCounters counters(int correct, int incorrect, int pending, int notSubmitted,
+			long scoreSum, int scoreCount) {
+		return new GradeCounters(correct, incorrect, pending, notSubmitted, scoreSum, scoreCount);
+	}
+}
@@ -0,0 +1,86 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.repository.CourseContentCount;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseGradeMatrixCacheTest {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final CourseRepository courseRepository = mock(CourseRepository.class);
+	private final CourseVersionRegistry courseVersionRegistry = new CourseVersionRegistry();
+	private final UUID courseId = UUID.randomUUID();
+
+	@Test
+	void loadsOnlyAfterTheConfiguredMissesAndThenServesFromMemory() {
+		CourseGradeMatrixCache cache = cache(DataSize.ofMegabytes(1));
+		courseOf(100, 10);
+
+		assertThat(cache.find(courseId)).isEmpty();
+		assertThat(cache.find(courseId)).isEmpty();
+		assertThat(cache.find(courseId)).isPresent();
+		assertThat(cache.find(courseId)).isPresent();
+
+		verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+	}
+
+	@Test
+	void skipsLoadingWhenTheEstimateExceedsTheBudget() {
+		// 10.000 x 20 celdas de 11 bytes superan 1 MB
+		CourseGradeMatrixCache cache = cache(DataSize.ofMegabytes(1));
+		courseOf(10_000, 20);
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(cache.find(courseId)).isEmpty();
+		}
+
+		verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+		// Solo se estima una vez por versión del curso
+		verify(courseRepository, times(1)).countContentByCourseIds(anyCollection());
+	}
+
+	@Test
+	void estimatesAgainAfterTheCourseChanges() {
+		CourseGradeMatrixCache cache = cache(DataSize.ofMegabytes(1));
+		courseOf(10_000, 20);
+		for (int i = 0; i < 3; i++) {
+			cache.find(courseId);
+		}
+
+		courseVersionRegistry.courseChanged(courseId, null);
+		courseOf(100, 20);
+		for (int i = 0; i < 3; i++) {
+			cache.find(courseId);
+		}
+
+		verify(courseRepository, times(2)).countContentByCourseIds(anyCollection());
+		verify(jdbcTemplate, times(1)).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+	}
+
+	private CourseGradeMatrixCache cache(DataSize maxMemory) {
+		return new CourseGradeMatrixCache(jdbcTemplate, mock(PlatformTransactionManager.class), courseRepository,
+				courseVersionRegistry, maxMemory, 3);
+	}
+
+	private void courseOf(long students, long exercises) {
+		when(courseRepository.countContentByCourseIds(anyCollection()))
+				.thenReturn(List.of(new CourseContentCount(courseId, students, exercises)));
+	}
+}
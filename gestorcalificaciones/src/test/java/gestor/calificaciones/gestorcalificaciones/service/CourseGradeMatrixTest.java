@@ -0,0 +1,169 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseGradeMatrixTest {
+
+	private static final LocalDateTime SUBMITTED = LocalDateTime.of(2024, 5, 17, 10, 30);
+
+	@Test
+	void mapsEveryCellToItsStudentAndExercise() {
+		List<UUID> students = ids(3);
+		List<UUID> exercises = ids(4);
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(12);
+		// Orden de lectura distinto del de los índices
+		for (int exercise = exercises.size() - 1; exercise >= 0; exercise--) {
+			for (int student = 0; student < students.size(); student++) {
+				builder.add(students.get(student), exercises.get(exercise), 10 * student + exercise,
+						GradeStatus.INCORRECT, null);
+			}
+		}
+
+		CourseGradeMatrix matrix = builder.build();
+
+		assertThat(matrix.studentCount()).isEqualTo(3);
+		assertThat(matrix.exerciseCount()).isEqualTo(4);
+		for (int student = 0; student < students.size(); student++) {
+			CourseGradeMatrix.StudentRow row = matrix.studentRow(students.get(student));
+			for (int exercise = 0; exercise < exercises.size(); exercise++) {
+				assertThat(row.score(exercises.get(exercise))).isEqualTo(10 * student + exercise);
+			}
+			assertThat(row.count(GradeStatus.INCORRECT)).isEqualTo(4);
+		}
+	}
+
+	@Test
+	void distinguishesMissingCellsFromEmptyScores() {
+		UUID student = UUID.randomUUID();
+		UUID pending = UUID.randomUUID();
+		UUID zero = UUID.randomUUID();
+		UUID ungraded = UUID.randomUUID();
+		UUID otherStudent = UUID.randomUUID();
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(4);
+		builder.add(student, pending, null, GradeStatus.PENDING, null);
+		builder.add(student, zero, 0, GradeStatus.INCORRECT, SUBMITTED);
+		// Otro estudiante califica el ejercicio, así que la celda existe en la matriz sin calificación
+		builder.add(otherStudent, ungraded, 90, GradeStatus.CORRECT, SUBMITTED);
+
+		CourseGradeMatrix.StudentRow row = builder.build().studentRow(student);
+
+		assertThat(row.status(pending)).isEqualTo(GradeStatus.PENDING);
+		assertThat(row.score(pending)).isNull();
+		assertThat(row.submittedAt(pending)).isNull();
+		assertThat(row.status(zero)).isEqualTo(GradeStatus.INCORRECT);
+		assertThat(row.score(zero)).isZero();
+		assertThat(row.status(ungraded)).isNull();
+		assertThat(row.score(ungraded)).isNull();
+		assertThat(row.submittedAt(ungraded)).isNull();
+		assertThat(row.status(UUID.randomUUID())).isNull();
+	}
+
+	@Test
+	void unknownStudentHasAnEmptyRow() {
+		UUID exercise = UUID.randomUUID();
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(1);
+		builder.add(UUID.randomUUID(), exercise, 100, GradeStatus.CORRECT, SUBMITTED);
+
+		CourseGradeMatrix.StudentRow row = builder.build().studentRow(UUID.randomUUID());
+
+		assertThat(row.status(exercise)).isNull();
+		assertThat(row.count(GradeStatus.CORRECT)).isZero();
+		assertThat(row.averageScore(GradeStatus.CORRECT)).isZero();
+	}
+
+	@Test
+	void builderGrowsPastItsInitialCapacity() {
+		UUID student = UUID.randomUUID();
+		List<UUID> exercises = ids(1000);
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(1);
+		for (int i = 0; i < exercises.size(); i++) {
+			builder.add(student, exercises.get(i), i % 101, i % 101 >= 80 ? GradeStatus.CORRECT : GradeStatus.INCORRECT,
+					SUBMITTED.plusSeconds(i));
+		}
+
+		CourseGradeMatrix matrix = builder.build();
+		CourseGradeMatrix.StudentRow row = matrix.studentRow(student);
+
+		assertThat(matrix.exerciseCount()).isEqualTo(1000);
+		assertThat(row.score(exercises.get(999))).isEqualTo(999 % 101);
+		assertThat(row.submittedAt(exercises.get(999))).isEqualTo(SUBMITTED.plusSeconds(999));
+		assertThat(row.count(GradeStatus.CORRECT) + row.count(GradeStatus.INCORRECT)).isEqualTo(1000);
+	}
+
+	@Test
+	void keepsSubmissionDatesToTheMicrosecond() {
+		UUID student = UUID.randomUUID();
+		UUID recent = UUID.randomUUID();
+		UUID beforeBase = UUID.randomUUID();
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(2);
+		builder.add(student, recent, 85, GradeStatus.CORRECT, SUBMITTED.withNano(123_456_789));
+		builder.add(student, beforeBase, 85, GradeStatus.CORRECT, LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_000));
+
+		CourseGradeMatrix.StudentRow row = builder.build().studentRow(student);
+
+		// PostgreSQL guarda microsegundos: los nanosegundos restantes no llegan a la matriz
+		assertThat(row.submittedAt(recent)).isEqualTo(SUBMITTED.withNano(123_456_000));
+		assertThat(row.submittedAt(beforeBase)).isEqualTo(LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_000));
+	}
+
+	@Test
+	void saturatesScoresOutsideTheShortRange() {
+		UUID student = UUID.randomUUID();
+		UUID high = UUID.randomUUID();
+		UUID low = UUID.randomUUID();
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(2);
+		builder.add(student, high, 1_000_000, GradeStatus.CORRECT, null);
+		builder.add(student, low, -1_000_000, GradeStatus.INCORRECT, null);
+
+		CourseGradeMatrix.StudentRow row = builder.build().studentRow(student);
+
+		assertThat(row.score(high)).isEqualTo((int) Short.MAX_VALUE);
+		// El mínimo de short se reserva para "sin puntaje"
+		assertThat(row.score(low)).isEqualTo(Short.MIN_VALUE + 1);
+	}
+
+	@Test
+	void averagesOnlyScoresWithTheRequestedStatus() {
+		UUID student = UUID.randomUUID();
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(4);
+		builder.add(student, UUID.randomUUID(), 80, GradeStatus.CORRECT, SUBMITTED);
+		builder.add(student, UUID.randomUUID(), 95, GradeStatus.CORRECT, SUBMITTED);
+		builder.add(student, UUID.randomUUID(), 20, GradeStatus.INCORRECT, SUBMITTED);
+		builder.add(student, UUID.randomUUID(), null, GradeStatus.NOT_SUBMITTED, null);
+
+		CourseGradeMatrix.StudentRow row = builder.build().studentRow(student);
+
+		assertThat(row.averageScore(GradeStatus.CORRECT)).isEqualTo(87.5);
+		assertThat(row.averageScore(GradeStatus.NOT_SUBMITTED)).isZero();
+		assertThat(row.count(GradeStatus.NOT_SUBMITTED)).isOne();
+	}
+
+	@Test
+	void estimatesElevenBytesPerCellPlusIds() {
+		CourseGradeMatrix.Builder builder = new CourseGradeMatrix.Builder(1);
+		builder.add(UUID.randomUUID(), UUID.randomUUID(), 1, GradeStatus.INCORRECT, null);
+		builder.add(UUID.randomUUID(), UUID.randomUUID(), 1, GradeStatus.INCORRECT, null);
+
+		CourseGradeMatrix matrix = builder.build();
+
+		assertThat(matrix.estimatedBytes()).isEqualTo(CourseGradeMatrix.estimatedBytes(2, 2));
+		assertThat(CourseGradeMatrix.estimatedBytes(1000, 50) - CourseGradeMatrix.estimatedBytes(0, 0))
+				.isGreaterThanOrEqualTo(11L * 1000 * 50);
+	}
+
+	private static List<UUID> ids(int count) {
+		List<UUID> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(UUID.randomUUID());
+		}
+		return ids;
+	}
+}
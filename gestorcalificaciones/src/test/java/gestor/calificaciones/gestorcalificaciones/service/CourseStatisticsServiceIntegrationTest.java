@@ -0,0 +1,87 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.CourseStatisticsResponse;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseStatisticsServiceIntegrationTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private CourseStatisticsService courseStatisticsService;
+
+	@Autowired
+	private GradeStatisticsService gradeStatisticsService;
+
+	@Autowired
+	private CourseVersionRegistry courseVersionRegistry;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Teacher teacher;
+	private UUID courseId;
+
+	@BeforeEach
+	void importSheet() {
+		teacher = GradebookFixtures.createTeacher(teacherRepository);
+		String code = GradebookFixtures.uniqueCode();
+		CsvUploadResponse response = csvProcessingService.processCsvFile("notas.csv",
+				GradebookFixtures.csv(GradebookFixtures.sheet(code, 4, 3,
+						(student, exercise) -> student == 3 ? -1 : 60 + 10 * student + exercise)),
+				GradebookFixtures.request(code), teacher.getId(), CsvImportProgress.NONE);
+		courseId = UUID.fromString(response.getCourseId());
+	}
+
+	@Test
+	void readsCourseWithoutStatisticsRowWithoutWriting() {
+		CourseStatisticsResponse maintained = courseStatisticsService.getCourseStatistics(courseId);
+		dropStatistics();
+
+		CourseStatisticsResponse grouped = courseStatisticsService.getCourseStatistics(courseId);
+
+		assertThat(grouped).usingRecursiveComparison().isEqualTo(maintained);
+		assertThat(statisticsRows()).isZero();
+	}
+
+	@Test
+	void rebuildsMissingStatisticsOnStartupPass() {
+		CourseStatisticsResponse maintained = courseStatisticsService.getCourseStatistics(courseId);
+		dropStatistics();
+
+		assertThat(gradeStatisticsService.rebuildMissing()).isGreaterThanOrEqualTo(1);
+
+		assertThat(statisticsRows()).isOne();
+		assertThat(courseStatisticsService.getCourseStatistics(courseId))
+				.usingRecursiveComparison().isEqualTo(maintained);
+	}
+
+	private void dropStatistics() {
+		jdbcTemplate.update("DELETE FROM course_grade_stats WHERE course_id = ?", courseId);
+		jdbcTemplate.update("DELETE FROM exercise_grade_stats WHERE course_id = ?", courseId);
+		jdbcTemplate.update("DELETE FROM student_course_grade_stats WHERE course_id = ?", courseId);
+		jdbcTemplate.update("DELETE FROM exercise_score_buckets WHERE course_id = ?", courseId);
+		// Las estadísticas en caché corresponden a la versión anterior
+		courseVersionRegistry.courseChanged(courseId, teacher.getId());
+	}
+
+	private int statisticsRows() {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM course_grade_stats WHERE course_id = ?", Integer.class, courseId);
+	}
+}
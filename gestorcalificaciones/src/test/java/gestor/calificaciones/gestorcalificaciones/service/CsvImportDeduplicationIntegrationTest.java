@@ -0,0 +1,110 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportRecordRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.IntBinaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvImportDeduplicationIntegrationTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private CsvImportRecordRepository csvImportRecordRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Teacher teacher;
+	private String code;
+
+	@BeforeEach
+	void createTeacher() {
+		teacher = GradebookFixtures.createTeacher(teacherRepository);
+		code = GradebookFixtures.uniqueCode();
+	}
+
+	@AfterEach
+	void dropFailingTrigger() {
+		jdbcTemplate.execute("DROP TRIGGER IF EXISTS reject_student ON users");
+		jdbcTemplate.execute("DROP FUNCTION IF EXISTS reject_student()");
+	}
+
+	@Test
+	void answersAnIdenticalUploadWithTheRecordedResult() {
+		ByteArrayResource sheet = sheet((student, exercise) -> 70 + student);
+		CsvUploadResponse first = upload(sheet);
+
+		CsvUploadResponse second = upload(sheet);
+
+		assertThat(first.isDuplicate()).isFalse();
+		assertThat(second.isDuplicate()).isTrue();
+		assertThat(second.getCourseId()).isEqualTo(first.getCourseId());
+		assertThat(second.getInsertedGrades()).isEqualTo(first.getInsertedGrades()).isEqualTo(6);
+	}
+
+	@Test
+	void reimportsAChangedFile() {
+		upload(sheet((student, exercise) -> 70 + student));
+
+		CsvUploadResponse changed = upload(sheet((student, exercise) -> student == 0 ? 95 : 70 + student));
+
+		assertThat(changed.isDuplicate()).isFalse();
+		assertThat(changed.getUpdatedGrades()).isEqualTo(2);
+		assertThat(changed.getUnchangedGrades()).isEqualTo(4);
+		assertThat(upload(sheet((student, exercise) -> student == 0 ? 95 : 70 + student)).isDuplicate()).isTrue();
+	}
+
+	@Test
+	void doesNotRecordAFailedImport() {
+		ByteArrayResource original = sheet((student, exercise) -> 70 + student);
+		upload(original);
+		String recordedHash = csvImportRecordRepository.findByCourseCode(code).orElseThrow().getContentHash();
+		rejectStudent(code + " Estudiante 4");
+		ByteArrayResource extended = GradebookFixtures.csv(GradebookFixtures.sheet(code, 4, 2,
+				(student, exercise) -> 70 + student));
+
+		assertThatThrownBy(() -> upload(extended)).isInstanceOf(RuntimeException.class);
+
+		assertThat(csvImportRecordRepository.findByCourseCode(code).orElseThrow().getContentHash())
+				.isEqualTo(recordedHash);
+		dropFailingTrigger();
+		CsvUploadResponse retried = upload(extended);
+		assertThat(retried.isDuplicate()).isFalse();
+		assertThat(retried.getInsertedGrades()).isEqualTo(2);
+	}
+
+	private ByteArrayResource sheet(IntBinaryOperator cell) {
+		return GradebookFixtures.csv(GradebookFixtures.sheet(code, 3, 2, cell));
+	}
+
+	private CsvUploadResponse upload(ByteArrayResource sheet) {
+		return csvProcessingService.processCsvFile("notas.csv", sheet, GradebookFixtures.request(code),
+				teacher.getId(), CsvImportProgress.NONE);
+	}
+
+	// Hace fallar la creación de un estudiante para simular un error a mitad de la carga
+	private void rejectStudent(String name) {
+		jdbcTemplate.execute("CREATE OR REPLACE FUNCTION reject_student() RETURNS trigger AS $$ BEGIN "
+				+ "IF NEW.name = '" + name + "' THEN RAISE EXCEPTION 'Estudiante rechazado'; END IF; "
+				+ "RETURN NEW; END $$ LANGUAGE plpgsql");
+		jdbcTemplate.execute("CREATE TRIGGER reject_student BEFORE INSERT ON users "
+				+ "FOR EACH ROW EXECUTE FUNCTION reject_student()");
+	}
+}
@@ -0,0 +1,143 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.enums.CsvUploadStage;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportCheckpointRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportRecordRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@TestPropertySource(properties = {"csv.import.commit-mode=chunked", "csv.import.chunk-size=2"})
+class CsvProcessingServiceChunkedIntegrationTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private CsvImportRecordRepository csvImportRecordRepository;
+
+	@Autowired
+	private CsvImportCheckpointRepository csvImportCheckpointRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Teacher teacher;
+	private String code;
+	private ByteArrayResource sheet;
+
+	@BeforeEach
+	void createSheet() {
+		teacher = GradebookFixtures.createTeacher(teacherRepository);
+		code = GradebookFixtures.uniqueCode();
+		// 5 estudiantes en bloques de 2: el tercero queda en medio del segundo bloque
+		sheet = GradebookFixtures.csv(GradebookFixtures.sheet(code, 5, 2, (student, exercise) -> 60 + student));
+	}
+
+	@AfterEach
+	void dropFailingTrigger() {
+		jdbcTemplate.execute("DROP TRIGGER IF EXISTS reject_student ON users");
+		jdbcTemplate.execute("DROP FUNCTION IF EXISTS reject_student()");
+	}
+
+	@Test
+	void reportsAFailingRowAndCommitsTheRestOfItsChunk() {
+		rejectStudent(code + " Estudiante 3");
+
+		CsvUploadResponse response = upload(CsvImportProgress.NONE);
+
+		assertThat(response.isSuccess()).isTrue();
+		assertThat(response.getErrors()).singleElement().asString()
+				.startsWith("Fila 4 (" + code + " Estudiante 3): ")
+				.contains("Estudiante rechazado");
+		assertThat(response.getTotalStudents()).isEqualTo(4);
+		assertThat(response.getInsertedGrades()).isEqualTo(8);
+		assertThat(gradedStudents(response)).isEqualTo(4);
+		// Una carga con filas fallidas no se registra como la última importación exitosa
+		assertThat(csvImportRecordRepository.findByCourseCode(code)).isEmpty();
+	}
+
+	@Test
+	void retriesTheSameFileAfterRowErrorsInsteadOfTreatingItAsDuplicate() {
+		rejectStudent(code + " Estudiante 3");
+		upload(CsvImportProgress.NONE);
+		dropFailingTrigger();
+
+		CsvUploadResponse retried = upload(CsvImportProgress.NONE);
+
+		assertThat(retried.isDuplicate()).isFalse();
+		assertThat(retried.getErrors()).isEmpty();
+		assertThat(retried.getInsertedGrades()).isEqualTo(2);
+		assertThat(retried.getUnchangedGrades()).isEqualTo(8);
+		assertThat(gradedStudents(retried)).isEqualTo(5);
+		assertThat(csvImportRecordRepository.findByCourseCode(code)).isPresent();
+		assertThat(upload(CsvImportProgress.NONE).isDuplicate()).isTrue();
+	}
+
+	@Test
+	void resumesAfterTheLastCommittedChunk() {
+		assertThatThrownBy(() -> upload(new InterruptAfterFirstChunk())).isInstanceOf(RuntimeException.class);
+		assertThat(csvImportCheckpointRepository.findByCourseCode(code)).get()
+				.extracting("lastRowNumber", "importedRows").containsExactly(3, 2);
+		assertThat(csvImportRecordRepository.findByCourseCode(code)).isEmpty();
+
+		CsvUploadResponse resumed = upload(CsvImportProgress.NONE);
+
+		assertThat(resumed.isDuplicate()).isFalse();
+		assertThat(resumed.getTotalStudents()).isEqualTo(5);
+		// Las filas del primer bloque no se vuelven a comparar: ninguna queda "sin cambios"
+		assertThat(resumed.getInsertedGrades()).isEqualTo(10);
+		assertThat(resumed.getUnchangedGrades()).isZero();
+		assertThat(gradedStudents(resumed)).isEqualTo(5);
+		assertThat(csvImportCheckpointRepository.findByCourseCode(code)).isEmpty();
+	}
+
+	private CsvUploadResponse upload(CsvImportProgress progress) {
+		return csvProcessingService.processCsvFile("notas.csv", sheet, GradebookFixtures.request(code),
+				teacher.getId(), progress);
+	}
+
+	private int gradedStudents(CsvUploadResponse response) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT sg.student_id) FROM student_grades sg "
+				+ "JOIN exercises e ON e.id = sg.exercise_id WHERE e.course_id = ?",
+				Integer.class, UUID.fromString(response.getCourseId()));
+	}
+
+	// Hace fallar la creación de un estudiante para simular una fila que la base rechaza
+	private void rejectStudent(String name) {
+		jdbcTemplate.execute("CREATE OR REPLACE FUNCTION reject_student() RETURNS trigger AS $$ BEGIN "
+				+ "IF NEW.name = '" + name + "' THEN RAISE EXCEPTION 'Estudiante rechazado'; END IF; "
+				+ "RETURN NEW; END $$ LANGUAGE plpgsql");
+		jdbcTemplate.execute("CREATE TRIGGER reject_student BEFORE INSERT ON users "
+				+ "FOR EACH ROW EXECUTE FUNCTION reject_student()");
+	}
+
+	// Simula una carga interrumpida después de confirmar el primer bloque
+	private static class InterruptAfterFirstChunk implements CsvImportProgress {
+
+		@Override
+		public void stageChanged(CsvUploadStage stage) {
+		}
+
+		@Override
+		public void rowsProcessed(int totalRows) {
+			throw new IllegalStateException("Conexión perdida");
+		}
+	}
+}
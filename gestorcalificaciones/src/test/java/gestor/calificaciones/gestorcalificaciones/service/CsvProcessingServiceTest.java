@@ -0,0 +1,103 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.entities.CsvImportRecord;
+import gestor.calificaciones.gestorcalificaciones.enums.ImportCommitMode;
+import gestor.calificaciones.gestorcalificaciones.repository.CourseRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportCheckpointRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.CsvImportRecordRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.ExerciseRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentCourseRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentGradeRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.StudentRepository;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CsvProcessingServiceTest {
+
+	private static final ByteArrayResource SHEET = new ByteArrayResource(
+			"Student Name;Ejercicio 1\nAna;100\n".getBytes(StandardCharsets.UTF_8));
+
+	private final CourseRepository courseRepository = mock(CourseRepository.class);
+	private final StudentRepository studentRepository = mock(StudentRepository.class);
+	private final StudentGradeRepository studentGradeRepository = mock(StudentGradeRepository.class);
+	private final CsvImportRecordRepository csvImportRecordRepository = mock(CsvImportRecordRepository.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final GradeStatisticsService gradeStatisticsService = mock(GradeStatisticsService.class);
+
+	private final CsvProcessingService service = new CsvProcessingService(courseRepository,
+			mock(ExerciseRepository.class), studentRepository, studentGradeRepository,
+			mock(StudentCourseRepository.class), mock(TeacherRepository.class), mock(PasswordEncoder.class),
+			mock(EntityManager.class), mock(StudentGradeCopyWriter.class), mock(ExecutorService.class),
+			csvImportRecordRepository, mock(CsvImportCheckpointRepository.class), transactionTemplate,
+			gradeStatisticsService, mock(CourseVersionRegistry.class));
+
+	@BeforeEach
+	void configure() {
+		ReflectionTestUtils.setField(service, "importCommitMode", ImportCommitMode.SINGLE);
+	}
+
+	@Test
+	void returnsTheRecordedResultWithoutAWriteTransaction() throws Exception {
+		CsvImportRecord record = record(sha256(SHEET.getByteArray()));
+		when(csvImportRecordRepository.findByCourseCode("MAT-101")).thenReturn(Optional.of(record));
+
+		CsvUploadResponse response = service.processCsvFile("notas.csv", SHEET,
+				GradebookFixtures.request("MAT-101"), UUID.randomUUID(), CsvImportProgress.NONE);
+
+		assertThat(response.isDuplicate()).isTrue();
+		assertThat(response.getCourseId()).isEqualTo(record.getCourseId().toString());
+		assertThat(response.getInsertedGrades()).isEqualTo(record.getInsertedGrades());
+		verifyNoInteractions(transactionTemplate, courseRepository, studentRepository, studentGradeRepository,
+				gradeStatisticsService);
+	}
+
+	@Test
+	void reimportsAFileThatChangedSinceTheLastImport() {
+		when(csvImportRecordRepository.findByCourseCode("MAT-101")).thenReturn(Optional.of(record("0".repeat(64))));
+		CsvUploadResponse imported = CsvUploadResponse.builder().success(true).build();
+		when(transactionTemplate.execute(any())).thenReturn(imported);
+
+		CsvUploadResponse response = service.processCsvFile("notas.csv", SHEET,
+				GradebookFixtures.request("MAT-101"), UUID.randomUUID(), CsvImportProgress.NONE);
+
+		assertThat(response).isSameAs(imported);
+		verify(transactionTemplate).execute(any());
+	}
+
+	private static CsvImportRecord record(String contentHash) {
+		CsvImportRecord record = new CsvImportRecord();
+		record.setCourseCode("MAT-101");
+		record.setCourseId(UUID.randomUUID());
+		record.setCourseName("Matemáticas");
+		record.setContentHash(contentHash);
+		record.setTotalStudents(1);
+		record.setTotalExercises(1);
+		record.setInsertedGrades(1);
+		return record;
+	}
+
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+}
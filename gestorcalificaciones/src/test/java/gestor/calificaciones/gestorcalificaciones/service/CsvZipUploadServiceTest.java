@@ -0,0 +1,150 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvZipManifestEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CsvZipUploadServiceTest {
+
+	private final CsvProcessingService csvProcessingService = mock(CsvProcessingService.class);
+	private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+	private CsvZipUploadService service;
+
+	@TempDir
+	Path spoolDir;
+
+	@BeforeEach
+	void createService() {
+		executor.setCorePoolSize(2);
+		executor.initialize();
+		service = new CsvZipUploadService(csvProcessingService, executor);
+		ReflectionTestUtils.setField(service, "spoolDir", spoolDir.toString());
+		ReflectionTestUtils.setField(service, "maxEntries", 10);
+		ReflectionTestUtils.setField(service, "maxEntrySize", DataSize.ofKilobytes(1));
+	}
+
+	@AfterEach
+	void stopExecutor() {
+		executor.shutdown();
+	}
+
+	@Test
+	void rejectsManifestEntriesThatAreNotCsv() {
+		List<CsvZipManifestEntry> manifest = List.of(entry("a.csv", "A"), entry("notas.xlsx", "B"));
+
+		assertThatThrownBy(() -> service.processZip(zip("a.csv", "notas.xlsx"), manifest, UUID.randomUUID()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("notas.xlsx");
+		verifyNoInteractions(csvProcessingService);
+	}
+
+	@Test
+	void rejectsRepeatedCourses() {
+		List<CsvZipManifestEntry> manifest = List.of(entry("a.csv", "A"), entry("b.csv", "A"));
+
+		assertThatThrownBy(() -> service.processZip(zip("a.csv", "b.csv"), manifest, UUID.randomUUID()))
+				.isInstanceOf(IllegalArgumentException.class);
+		verifyNoInteractions(csvProcessingService);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void provisionsStudentsOnceThenImportsEveryEntryInManifestOrder() throws IOException {
+		when(csvProcessingService.processCsvFile(anyString(), any(), any(), any(), any()))
+				.thenAnswer(invocation -> CsvUploadResponse.builder()
+						.courseName(invocation.getArgument(2, CsvUploadRequest.class).getCourseName())
+						.success(true)
+						.build());
+		List<CsvZipManifestEntry> manifest = List.of(entry("b.csv", "B"), entry("cursos/a.csv", "A"),
+				entry("faltante.csv", "C"));
+
+		List<CsvUploadResponse> responses = service.processZip(
+				zip("cursos/a.csv", "b.csv", "leeme.txt"), manifest, UUID.randomUUID());
+
+		ArgumentCaptor<Collection<? extends InputStreamSource>> sources = ArgumentCaptor.forClass(Collection.class);
+		verify(csvProcessingService, times(1)).provisionStudents(sources.capture());
+		assertThat(sources.getValue()).hasSize(2);
+		verify(csvProcessingService, times(2)).processCsvFile(anyString(), any(), any(), any(), eq(CsvImportProgress.NONE));
+
+		assertThat(responses).extracting(CsvUploadResponse::getFileName)
+				.containsExactly("b.csv", "cursos/a.csv", "faltante.csv");
+		assertThat(responses).extracting(CsvUploadResponse::isSuccess).containsExactly(true, true, false);
+		assertThat(responses.get(2).getErrors()).containsExactly("El archivo no se encontró en el ZIP");
+		// Las entradas extraídas se eliminan al terminar
+		try (var files = Files.list(spoolDir)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	void rejectsEntriesLargerThanTheLimit() {
+		List<CsvZipManifestEntry> manifest = List.of(entry("a.csv", "A"));
+		byte[] large = ("Student Name;E1\n" + "Ana;100\n".repeat(200)).getBytes(StandardCharsets.UTF_8);
+
+		assertThatThrownBy(() -> service.processZip(zipWith("a.csv", large), manifest, UUID.randomUUID()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("tamaño máximo");
+	}
+
+	private static CsvZipManifestEntry entry(String fileName, String courseCode) {
+		return CsvZipManifestEntry.builder()
+				.fileName(fileName)
+				.courseCode(courseCode)
+				.courseName("Curso " + courseCode)
+				.build();
+	}
+
+	private static MockMultipartFile zip(String... names) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream output = new ZipOutputStream(bytes)) {
+			for (String name : names) {
+				output.putNextEntry(new ZipEntry(name));
+				output.write("Student Name;E1\nAna;100\n".getBytes(StandardCharsets.UTF_8));
+				output.closeEntry();
+			}
+		}
+		return new MockMultipartFile("file", "cursos.zip", "application/zip", bytes.toByteArray());
+	}
+
+	private static MockMultipartFile zipWith(String name, byte[] content) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ZipOutputStream output = new ZipOutputStream(bytes)) {
+			output.putNextEntry(new ZipEntry(name));
+			output.write(content);
+			output.closeEntry();
+		}
+		return new MockMultipartFile("file", "cursos.zip", "application/zip", bytes.toByteArray());
+	}
+}
@@ -0,0 +1,85 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.enums.GradeWriteMode;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.IntBinaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara los modos de escritura de calificaciones sobre una planilla de
+ * 100.000 celdas: primera carga (todo se inserta) y recarga con todas las
+ * celdas modificadas. Se ejecuta con {@code mvn -Pbenchmark test}.
+ */
+class GradeWriteModeBenchmark extends PostgresIntegrationTest {
+
+	private static final int STUDENTS = 1_000;
+	private static final int EXERCISES = 100;
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Test
+	void compareWriteModes() {
+		Teacher teacher = GradebookFixtures.createTeacher(teacherRepository);
+		Object configuredMode = ReflectionTestUtils.getField(csvProcessingService, "gradeWriteMode");
+		try {
+			// Calentamiento: JIT, conexiones del pool y planes de las consultas
+			for (GradeWriteMode mode : GradeWriteMode.values()) {
+				measure(mode, teacher, 50, 10);
+			}
+
+			System.out.printf("%-6s %12s %12s%n", "modo", "inserción ms", "recarga ms");
+			for (GradeWriteMode mode : GradeWriteMode.values()) {
+				long[] millis = measure(mode, teacher, STUDENTS, EXERCISES);
+				System.out.printf("%-6s %12d %12d%n", mode, millis[0], millis[1]);
+			}
+		} finally {
+			// El contexto se comparte con las demás clases de prueba
+			ReflectionTestUtils.setField(csvProcessingService, "gradeWriteMode", configuredMode);
+		}
+	}
+
+	private long[] measure(GradeWriteMode mode, Teacher teacher, int students, int exercises) {
+		ReflectionTestUtils.setField(csvProcessingService, "gradeWriteMode", mode);
+		String code = GradebookFixtures.uniqueCode();
+		int cells = students * exercises;
+
+		long insertMillis = timed(() -> {
+			CsvUploadResponse response = upload(teacher, code,
+					sheet(code, students, exercises, (student, exercise) -> (student + exercise) % 101));
+			assertThat(response.getInsertedGrades()).isEqualTo(cells);
+		});
+		long updateMillis = timed(() -> {
+			CsvUploadResponse response = upload(teacher, code,
+					sheet(code, students, exercises, (student, exercise) -> (student + exercise + 1) % 101));
+			assertThat(response.getUpdatedGrades()).isEqualTo(cells);
+		});
+		return new long[]{insertMillis, updateMillis};
+	}
+
+	private CsvUploadResponse upload(Teacher teacher, String code, MockMultipartFile sheet) {
+		return csvProcessingService.processCsvFile(sheet, GradebookFixtures.request(code), teacher.getId());
+	}
+
+	private static MockMultipartFile sheet(String code, int students, int exercises, IntBinaryOperator cell) {
+		return GradebookFixtures.file(GradebookFixtures.sheet(code, students, exercises, cell));
+	}
+
+	private static long timed(Runnable action) {
+		long start = System.nanoTime();
+		action.run();
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+}
@@ -0,0 +1,162 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.enums.GradeStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradebookCsvTokenizerTest {
+
+	@Test
+	void readsHeaderAndRowsWithComma() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Student Name,Ejercicio 1,Ejercicio 2\nAna,100,70\nLuis,80,Not Submitted\n", ',');
+
+		assertThat(rows).extracting(GradebookCsvTokenizer.Row::name).containsExactly("Ana", "Luis");
+		assertThat(rows.get(0).grades()).containsExactly(ParsedGrade.ofScore(100), ParsedGrade.ofScore(70));
+		assertThat(rows.get(1).grades()).containsExactly(ParsedGrade.ofScore(80), ParsedGrade.NOT_SUBMITTED);
+		assertThat(rows).extracting(GradebookCsvTokenizer.Row::rowNumber).containsExactly(2, 3);
+	}
+
+	@Test
+	void readsSemicolonSeparatedRows() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Nombre;E1;E2\nAna;90;10\n", ';');
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).grades()).containsExactly(ParsedGrade.ofScore(90), ParsedGrade.ofScore(10));
+	}
+
+	@Test
+	void readsQuotedFieldsWithSeparatorsEscapedQuotesAndLineBreaks() throws IOException {
+		String csv = "Name,E1\n"
+				+ "\"Perez, Juan\",90\n"
+				+ "\"Ana \"\"la Profe\"\"\",\"85\"\n"
+				+ "\"Luis\nGarcia\",70\n";
+
+		List<GradebookCsvTokenizer.Row> rows = tokenize(csv, ',');
+
+		assertThat(rows).extracting(GradebookCsvTokenizer.Row::name)
+				.containsExactly("Perez, Juan", "Ana \"la Profe\"", "Luis\nGarcia");
+		assertThat(rows.get(1).grades()).containsExactly(ParsedGrade.ofScore(85));
+		// La fila con salto de línea entre comillas ocupa las líneas 4 y 5, pero cuenta como una fila
+		assertThat(rows.get(2).rowNumber()).isEqualTo(4);
+	}
+
+	@Test
+	void readsCrLfLineEndings() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Name,E1,E2\r\nAna,90,80\r\nLuis,10,20\r\n", ',');
+
+		assertThat(rows).extracting(GradebookCsvTokenizer.Row::name).containsExactly("Ana", "Luis");
+		assertThat(rows.get(1).grades()).containsExactly(ParsedGrade.ofScore(10), ParsedGrade.ofScore(20));
+	}
+
+	@Test
+	void readsLastRowWithoutLineEnding() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Name,E1\nAna,95", ',');
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).grades()).containsExactly(ParsedGrade.ofScore(95));
+	}
+
+	@Test
+	void skipsUtf8ByteOrderMark() throws IOException {
+		try (GradebookCsvTokenizer tokenizer = new GradebookCsvTokenizer(
+				new StringReader("\uFEFFStudent Name,E1\nAna,90\n"), ',')) {
+			assertThat(tokenizer.readHeader()).containsExactly("Student Name", "E1");
+			assertThat(tokenizer.nextRow().name()).isEqualTo("Ana");
+		}
+	}
+
+	@Test
+	void emptyTrailingFieldsAreNotSubmitted() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Name,E1,E2,E3\nAna,90,,\n", ',');
+
+		assertThat(rows.get(0).grades())
+				.containsExactly(ParsedGrade.ofScore(90), ParsedGrade.NOT_SUBMITTED, ParsedGrade.NOT_SUBMITTED);
+	}
+
+	@Test
+	void skipsNotAvailableAndTotalGradeCells() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Name,E1,E2,E3,E4\nAna,NA,90,Total Grade,\"total grade\"\n", ',');
+
+		assertThat(rows.get(0).grades()).containsExactly(ParsedGrade.ofScore(90));
+	}
+
+	@Test
+	void skipsRowsWithBlankNameButCountsThem() throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Name,E1\n,90\n   ,80\nAna,70\n", ',');
+
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0).rowNumber()).isEqualTo(4);
+	}
+
+	@Test
+	void emptyFileHasNoHeader() throws IOException {
+		try (GradebookCsvTokenizer tokenizer = new GradebookCsvTokenizer(new StringReader(""), ',')) {
+			assertThat(tokenizer.readHeader()).isNull();
+			assertThat(tokenizer.nextRow()).isNull();
+		}
+	}
+
+	@Test
+	void readsRowsAcrossBufferBoundaries() throws IOException {
+		StringBuilder csv = new StringBuilder("Name,E1,E2\n");
+		int rowCount = 20_000;
+		for (int i = 0; i < rowCount; i++) {
+			csv.append("\"Estudiante, ").append(i).append("\",").append(i % 101).append(",Not Submitted\r\n");
+		}
+
+		List<GradebookCsvTokenizer.Row> rows = tokenize(csv.toString(), ',');
+
+		assertThat(rows).hasSize(rowCount);
+		for (int i = 0; i < rowCount; i++) {
+			assertThat(rows.get(i).name()).isEqualTo("Estudiante, " + i);
+			assertThat(rows.get(i).grades()).containsExactly(ParsedGrade.ofScore(i % 101), ParsedGrade.NOT_SUBMITTED);
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"0", "79", "80", "100", "007", "+7", "-5", "150", " 85 ", "2147483647", "2147483648",
+			"-2147483648", "-2147483649", "99999999999999999999", "1.5", "85%", "abc", "+", "-", "--1", "1 2",
+			"٣٥", "pending"})
+	void classifiesNumbersLikeIntegerParseInt(String cell) throws IOException {
+		List<GradebookCsvTokenizer.Row> rows = tokenize("Name,E1\nAna," + cell + "\n", ',');
+
+		assertThat(rows.get(0).grades()).containsExactly(expectedGrade(cell.trim()));
+	}
+
+	@Test
+	void classifiesScoresByPassingThreshold() {
+		assertThat(ParsedGrade.ofScore(80).status()).isEqualTo(GradeStatus.CORRECT);
+		assertThat(ParsedGrade.ofScore(79).status()).isEqualTo(GradeStatus.INCORRECT);
+		assertThat(ParsedGrade.ofScore(0).status()).isEqualTo(GradeStatus.INCORRECT);
+		assertThat(ParsedGrade.ofScore(150).status()).isEqualTo(GradeStatus.CORRECT);
+	}
+
+	// Clasificación de referencia, con Integer.parseInt como la hacía el lector anterior
+	private static ParsedGrade expectedGrade(String cell) {
+		try {
+			return ParsedGrade.ofScore(Integer.parseInt(cell));
+		} catch (NumberFormatException e) {
+			return ParsedGrade.PENDING;
+		}
+	}
+
+	private static List<GradebookCsvTokenizer.Row> tokenize(String csv, char separator) throws IOException {
+		try (GradebookCsvTokenizer tokenizer = new GradebookCsvTokenizer(new StringReader(csv), separator)) {
+			assertThat(tokenizer.readHeader()).isNotNull();
+			List<GradebookCsvTokenizer.Row> rows = new ArrayList<>();
+			GradebookCsvTokenizer.Row row;
+			while ((row = tokenizer.nextRow()) != null) {
+				rows.add(row);
+			}
+			return rows;
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadRequest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.enums.Role;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Datos de prueba para las importaciones de CSV. Los nombres de estudiantes se
+ * resuelven contra todos los usuarios, así que cada planilla usa un prefijo
+ * propio para no compartir estudiantes con otras pruebas.
+ */
+final class GradebookFixtures {
+
+	private GradebookFixtures() {
+	}
+
+	static String uniqueCode() {
+		return "T" + UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	static Teacher createTeacher(TeacherRepository teacherRepository) {
+		Teacher teacher = new Teacher();
+		teacher.setName("Profesor " + uniqueCode());
+		teacher.setEmail(UUID.randomUUID() + "@profesor.com");
+		teacher.setPassword("x");
+		teacher.setRole(Role.TEACHER);
+		return teacherRepository.save(teacher);
+	}
+
+	static CsvUploadRequest request(String courseCode) {
+		return CsvUploadRequest.builder()
+				.courseCode(courseCode)
+				.courseName("Curso " + courseCode)
+				.description("Curso de prueba")
+				.build();
+	}
+
+	static ByteArrayResource csv(List<String> lines) {
+		return new ByteArrayResource(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	static MockMultipartFile file(List<String> lines) {
+		return new MockMultipartFile("file", "notas.csv", "text/csv", csv(lines).getByteArray());
+	}
+
+	/**
+	 * Planilla con {@code students} filas y {@code exercises} columnas; cada celda
+	 * vale {@code cell(estudiante, ejercicio)}, o "Not Submitted" si es negativa.
+	 */
+	static List<String> sheet(String prefix, int students, int exercises, IntBinaryOperator cell) {
+		List<String> lines = new ArrayList<>(students + 1);
+		StringBuilder header = new StringBuilder("Student Name");
+		for (int exercise = 0; exercise < exercises; exercise++) {
+			header.append(";Ejercicio ").append(exercise + 1);
+		}
+		lines.add(header.toString());
+		for (int student = 0; student < students; student++) {
+			StringBuilder line = new StringBuilder(prefix).append(" Estudiante ").append(student + 1);
+			for (int exercise = 0; exercise < exercises; exercise++) {
+				int value = cell.applyAsInt(student, exercise);
+				line.append(';').append(value < 0 ? "Not Submitted" : String.valueOf(value));
+			}
+			lines.add(line.toString());
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,128 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedFileResourceTest {
+
+	@TempDir
+	Path directory;
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 7, 64, 1000, 4096})
+	void readsAcrossWindowBoundaries(int bufferSize) throws IOException {
+		byte[] content = randomBytes(10_000);
+		Path file = write(content);
+
+		// Ventanas de 1 KB: el archivo ocupa 10 ventanas, la última incompleta
+		byte[] read;
+		try (InputStream input = new MappedFileResource(file, 1024).getInputStream()) {
+			read = readAll(input, bufferSize);
+		}
+
+		assertThat(read).isEqualTo(content);
+	}
+
+	@Test
+	void readsSingleBytesUntilTheEnd() throws IOException {
+		byte[] content = {0, (byte) 0xFF, 42, (byte) 0x80};
+		Path file = write(content);
+
+		try (InputStream input = new MappedFileResource(file, 3).getInputStream()) {
+			assertThat(input.read()).isEqualTo(0);
+			assertThat(input.read()).isEqualTo(0xFF);
+			assertThat(input.read()).isEqualTo(42);
+			// Primer byte de la segunda ventana
+			assertThat(input.read()).isEqualTo(0x80);
+			assertThat(input.read()).isEqualTo(-1);
+			assertThat(input.read(new byte[8], 0, 8)).isEqualTo(-1);
+		}
+	}
+
+	@Test
+	void readsEmptyFile() throws IOException {
+		Path file = write(new byte[0]);
+
+		try (InputStream input = new MappedFileResource(file).getInputStream()) {
+			assertThat(input.read()).isEqualTo(-1);
+		}
+		assertThat(new MappedFileResource(file).digest("SHA-256"))
+				.isEqualTo(sha256(new byte[0]));
+	}
+
+	@ParameterizedTest
+	@ValueSource(longs = {1, 1000, 4096, 1 << 20})
+	void digestMatchesTheWholeFile(long windowSize) throws Exception {
+		byte[] content = randomBytes(50_000);
+		Path file = write(content);
+
+		assertThat(new MappedFileResource(file, windowSize).digest("SHA-256")).isEqualTo(sha256(content));
+	}
+
+	@Test
+	void readsAcrossTheDefaultWindowBoundary() throws IOException {
+		// Archivo disperso apenas mayor que una ventana: solo los bytes alrededor del límite tienen datos
+		Path file = directory.resolve("grande.csv");
+		byte[] marker = "fin-de-ventana|inicio-de-ventana".getBytes(StandardCharsets.US_ASCII);
+		long markerStart = MappedFileResource.WINDOW_SIZE - 14;
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+			raf.setLength(MappedFileResource.WINDOW_SIZE + 100);
+			raf.seek(markerStart);
+			raf.write(marker);
+		}
+
+		byte[] read = new byte[marker.length];
+		try (InputStream input = new MappedFileResource(file).getInputStream()) {
+			assertThat(input.skip(markerStart)).isEqualTo(markerStart);
+			int filled = 0;
+			while (filled < read.length) {
+				filled += input.read(read, filled, read.length - filled);
+			}
+			assertThat(input.skip(Long.MAX_VALUE)).isEqualTo(100 - (marker.length - 14));
+		}
+
+		assertThat(read).isEqualTo(marker);
+	}
+
+	private Path write(byte[] content) throws IOException {
+		return Files.write(Files.createTempFile(directory, "carga", ".csv"), content);
+	}
+
+	private static byte[] readAll(InputStream input, int bufferSize) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] buffer = new byte[bufferSize];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			output.write(buffer, 0, read);
+		}
+		return output.toByteArray();
+	}
+
+	private static byte[] randomBytes(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+
+	private static byte[] sha256(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
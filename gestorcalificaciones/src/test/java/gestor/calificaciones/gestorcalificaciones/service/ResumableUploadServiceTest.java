@@ -0,0 +1,214 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadJobResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadInitRequest;
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.ResumableUploadResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ResumableUploadServiceTest {
+
+	private static final byte[] CONTENT = ("Student Name;E1;E2\n" + "Ana;100;90\n".repeat(20))
+			.getBytes(StandardCharsets.UTF_8);
+
+	private final CsvUploadJobService csvUploadJobService = mock(CsvUploadJobService.class);
+	private final ResumableUploadService service = new ResumableUploadService(csvUploadJobService);
+	private final UUID teacherId = UUID.randomUUID();
+
+	@TempDir
+	Path spoolDir;
+
+	@BeforeEach
+	void configure() {
+		ReflectionTestUtils.setField(service, "spoolDir", spoolDir.toString());
+		ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofKilobytes(1));
+		ReflectionTestUtils.setField(service, "maxChunkSize", DataSize.ofBytes(100));
+		ReflectionTestUtils.setField(service, "expiryMinutes", 60L);
+	}
+
+	@Test
+	void writesContiguousChunksAndAcceptsResends() throws IOException {
+		UUID uploadId = start(sha256(CONTENT));
+
+		assertThat(write(uploadId, 0, 0, 50).getReceivedBytes()).isEqualTo(50);
+		// Reenvío de un bloque ya recibido tras perder la respuesta
+		assertThat(write(uploadId, 0, 0, 50).getReceivedBytes()).isEqualTo(50);
+		// Reenvío parcial que además trae bytes nuevos
+		assertThat(write(uploadId, 30, 30, 120).getReceivedBytes()).isEqualTo(120);
+		writeUpTo(uploadId, 120, CONTENT.length);
+
+		assertThat(service.getUpload(uploadId, teacherId).orElseThrow().isComplete()).isTrue();
+		assertThat(Files.readAllBytes(spoolFile(uploadId))).isEqualTo(CONTENT);
+	}
+
+	@Test
+	void rejectsChunksThatLeaveAGap() throws IOException {
+		UUID uploadId = start(sha256(CONTENT));
+		write(uploadId, 0, 0, 40);
+
+		assertThatThrownBy(() -> write(uploadId, 41, 41, 60))
+				.isInstanceOf(IllegalStateException.class);
+		assertThatThrownBy(() -> write(uploadId, -1, 0, 10))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(service.getUpload(uploadId, teacherId).orElseThrow().getReceivedBytes()).isEqualTo(40);
+	}
+
+	@Test
+	void countsBytesWrittenBeforeAConnectionDrops() throws IOException {
+		UUID uploadId = start(sha256(CONTENT));
+		InputStream dropped = new InputStream() {
+			private int position;
+
+			@Override
+			public int read() throws IOException {
+				if (position == 30) {
+					throw new IOException("Conexión cerrada");
+				}
+				return CONTENT[position++];
+			}
+
+			@Override
+			public int read(byte[] bytes, int offset, int length) throws IOException {
+				// Bloques de 10 bytes, como llegarían por la red
+				int count = 0;
+				while (count < Math.min(length, 10)) {
+					bytes[offset + count] = (byte) read();
+					count++;
+				}
+				return count;
+			}
+		};
+
+		assertThatThrownBy(() -> service.writeChunk(uploadId, teacherId, 0, dropped))
+				.isInstanceOf(IOException.class);
+
+		assertThat(service.getUpload(uploadId, teacherId).orElseThrow().getReceivedBytes()).isEqualTo(30);
+		// El cliente reanuda desde los bytes recibidos
+		assertThat(write(uploadId, 30, 30, 100).getReceivedBytes()).isEqualTo(100);
+	}
+
+	@Test
+	void rejectsChunksLargerThanTheLimitOrTheDeclaredSize() throws IOException {
+		UUID uploadId = start(sha256(CONTENT));
+
+		assertThatThrownBy(() -> write(uploadId, 0, 0, 101))
+				.isInstanceOf(IllegalArgumentException.class);
+		writeUpTo(uploadId, 0, CONTENT.length - 10);
+		InputStream pastTheEnd = new ByteArrayInputStream(new byte[20]);
+		assertThatThrownBy(() -> service.writeChunk(uploadId, teacherId, CONTENT.length - 10, pastTheEnd))
+				.isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(service.getUpload(uploadId, teacherId).orElseThrow().getReceivedBytes())
+				.isEqualTo(CONTENT.length - 10);
+	}
+
+	@Test
+	void rejectsInvalidUploads() {
+		assertThatThrownBy(() -> service.start(init("notas.xlsx", CONTENT.length, sha256(CONTENT)), teacherId))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> service.start(init("notas.csv", 2048, sha256(CONTENT)), teacherId))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> service.start(init("notas.csv", CONTENT.length, "abc"), teacherId))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void hidesUploadsFromOtherTeachers() throws IOException {
+		UUID uploadId = start(sha256(CONTENT));
+
+		assertThat(service.getUpload(uploadId, UUID.randomUUID())).isEmpty();
+		assertThat(service.writeChunk(uploadId, UUID.randomUUID(), 0, new ByteArrayInputStream(CONTENT))).isEmpty();
+		assertThat(service.cancel(uploadId, UUID.randomUUID())).isFalse();
+	}
+
+	@Test
+	void completesOnlyAFullUploadWithTheDeclaredChecksum() throws IOException {
+		UUID uploadId = start(sha256(CONTENT));
+		CsvUploadJobResponse job = CsvUploadJobResponse.builder().jobId(UUID.randomUUID().toString()).build();
+		when(csvUploadJobService.submitSpooled(any(), any(), any(), any())).thenReturn(job);
+		write(uploadId, 0, 0, 100);
+
+		assertThatThrownBy(() -> service.complete(uploadId, teacherId)).isInstanceOf(IllegalStateException.class);
+		writeUpTo(uploadId, 100, CONTENT.length);
+
+		assertThat(service.complete(uploadId, teacherId)).contains(job);
+		verify(csvUploadJobService).submitSpooled(eq("notas.csv"), eq(spoolFile(uploadId)), any(), eq(teacherId));
+		// El trabajo es ahora dueño del archivo temporal
+		assertThat(service.getUpload(uploadId, teacherId)).isEmpty();
+	}
+
+	@Test
+	void discardsUploadsWhoseChecksumDoesNotMatch() throws IOException {
+		byte[] other = Arrays.copyOf(CONTENT, CONTENT.length);
+		other[0] = 'X';
+		UUID uploadId = start(sha256(other));
+		writeUpTo(uploadId, 0, CONTENT.length);
+
+		assertThatThrownBy(() -> service.complete(uploadId, teacherId)).isInstanceOf(IllegalArgumentException.class);
+
+		assertThat(service.getUpload(uploadId, teacherId)).isEmpty();
+		assertThat(spoolFile(uploadId)).doesNotExist();
+		verifyNoInteractions(csvUploadJobService);
+	}
+
+	private UUID start(String sha256) throws IOException {
+		ResumableUploadResponse response = service.start(init("notas.csv", CONTENT.length, sha256), teacherId);
+		return UUID.fromString(response.getUploadId());
+	}
+
+	private ResumableUploadResponse write(UUID uploadId, long offset, int from, int to) throws IOException {
+		return service.writeChunk(uploadId, teacherId, offset,
+				new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, to))).orElseThrow();
+	}
+
+	private void writeUpTo(UUID uploadId, int from, int to) throws IOException {
+		for (int offset = from; offset < to; offset += 100) {
+			write(uploadId, offset, offset, Math.min(offset + 100, to));
+		}
+	}
+
+	private Path spoolFile(UUID uploadId) {
+		return spoolDir.resolve("resumable").resolve(uploadId + ".part");
+	}
+
+	private static ResumableUploadInitRequest init(String fileName, long totalSize, String sha256) {
+		return ResumableUploadInitRequest.builder()
+				.fileName(fileName)
+				.courseCode("MAT-101")
+				.courseName("Matemáticas")
+				.totalSize(totalSize)
+				.sha256(sha256)
+				.build();
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
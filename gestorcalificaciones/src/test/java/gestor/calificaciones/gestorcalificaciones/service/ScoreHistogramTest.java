@@ -0,0 +1,113 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.ScoreDistribution;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScoreHistogramTest {
+
+	@Test
+	void clampsScoresOutsideRange() {
+		assertThat(ScoreHistogram.bucketOf(-10)).isZero();
+		assertThat(ScoreHistogram.bucketOf(55)).isEqualTo(55);
+		assertThat(ScoreHistogram.bucketOf(250)).isEqualTo(100);
+	}
+
+	@Test
+	void emptyHistogramHasNoScores() {
+		ScoreDistribution distribution = ScoreHistogram.distribution(new int[ScoreHistogram.BUCKETS], 0);
+
+		assertThat(distribution.getScoredCount()).isZero();
+		assertThat(distribution.getMinScore()).isNull();
+		assertThat(distribution.getMaxScore()).isNull();
+		assertThat(distribution.getMedian()).isZero();
+	}
+
+	@Test
+	void singleScoreIsEveryPercentile() {
+		ScoreDistribution distribution = distributionOf(73);
+
+		assertThat(distribution.getMinScore()).isEqualTo(73);
+		assertThat(distribution.getMaxScore()).isEqualTo(73);
+		assertThat(distribution.getPercentile25()).isEqualTo(73.0);
+		assertThat(distribution.getMedian()).isEqualTo(73.0);
+		assertThat(distribution.getPercentile75()).isEqualTo(73.0);
+	}
+
+	@Test
+	void interpolatesLikePercentileInc() {
+		// PERCENTILE.INC({10, 20, 30, 40}, k) = 17.5, 25, 32.5
+		ScoreDistribution distribution = distributionOf(40, 10, 30, 20);
+
+		assertThat(distribution.getScoredCount()).isEqualTo(4);
+		assertThat(distribution.getPercentile25()).isEqualTo(17.5);
+		assertThat(distribution.getMedian()).isEqualTo(25.0);
+		assertThat(distribution.getPercentile75()).isEqualTo(32.5);
+	}
+
+	@Test
+	void ignoresNegativeCounts() {
+		int[] histogram = new int[ScoreHistogram.BUCKETS];
+		histogram[10] = -3;
+		histogram[90] = 2;
+
+		ScoreDistribution distribution = ScoreHistogram.distribution(histogram, 0);
+
+		assertThat(distribution.getScoredCount()).isEqualTo(2);
+		assertThat(distribution.getMinScore()).isEqualTo(90);
+		assertThat(distribution.getHistogram()[10]).isZero();
+	}
+
+	@Test
+	void readsHistogramAtOffset() {
+		int[] histograms = new int[ScoreHistogram.BUCKETS * 2];
+		histograms[5] = 1;
+		histograms[ScoreHistogram.BUCKETS + 60] = 3;
+
+		ScoreDistribution distribution = ScoreHistogram.distribution(histograms, ScoreHistogram.BUCKETS);
+
+		assertThat(distribution.getScoredCount()).isEqualTo(3);
+		assertThat(distribution.getMinScore()).isEqualTo(60);
+		assertThat(distribution.getMaxScore()).isEqualTo(60);
+	}
+
+	@Test
+	void matchesPercentilesOfSortedScores() {
+		Random random = new Random(42);
+		for (int round = 0; round < 200; round++) {
+			int[] scores = new int[1 + random.nextInt(300)];
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] = random.nextInt(ScoreHistogram.BUCKETS);
+			}
+
+			ScoreDistribution distribution = distributionOf(scores);
+
+			Arrays.sort(scores);
+			assertThat(distribution.getMinScore()).isEqualTo(scores[0]);
+			assertThat(distribution.getMaxScore()).isEqualTo(scores[scores.length - 1]);
+			assertThat(distribution.getPercentile25()).isCloseTo(percentileInc(scores, 0.25), within(1e-9));
+			assertThat(distribution.getMedian()).isCloseTo(percentileInc(scores, 0.50), within(1e-9));
+			assertThat(distribution.getPercentile75()).isCloseTo(percentileInc(scores, 0.75), within(1e-9));
+		}
+	}
+
+	private static ScoreDistribution distributionOf(int... scores) {
+		int[] histogram = new int[ScoreHistogram.BUCKETS];
+		for (int score : scores) {
+			histogram[ScoreHistogram.bucketOf(score)]++;
+		}
+		return ScoreHistogram.distribution(histogram, 0);
+	}
+
+	private static double percentileInc(int[] sorted, double fraction) {
+		double position = (sorted.length - 1) * fraction;
+		int lower = (int) Math.floor(position);
+		int upper = Math.min(lower + 1, sorted.length - 1);
+		return sorted[lower] + (position - lower) * (sorted[upper] - sorted[lower]);
+	}
+}
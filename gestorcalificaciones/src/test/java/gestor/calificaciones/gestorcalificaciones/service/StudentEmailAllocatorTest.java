@@ -0,0 +1,87 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StudentEmailAllocatorTest {
+
+	private final StudentRepository studentRepository = mock(StudentRepository.class);
+	private final StudentEmailAllocator allocator = new StudentEmailAllocator(studentRepository);
+
+	@Test
+	void buildsBaseFromName() {
+		assertThat(StudentEmailAllocator.baseLocalPart("  Andrea   Gutiérrez-López ")).isEqualTo("andrea.gutirrezlpez");
+		assertThat(StudentEmailAllocator.baseLocalPart("Juan Perez")).isEqualTo("juan.perez");
+	}
+
+	@Test
+	void truncatesLongBases() {
+		String base = StudentEmailAllocator.baseLocalPart("a".repeat(300));
+
+		assertThat(base).hasSize(StudentEmailAllocator.MAX_LOCAL_LENGTH);
+	}
+
+	@Test
+	void allocatesBaseWhenFree() {
+		when(studentRepository.findEmailsSharingBase(any())).thenReturn(List.of());
+		allocator.preload(Set.of("juan.perez"));
+
+		assertThat(allocator.allocate("juan.perez")).isEqualTo("juan.perez@estudiante.com");
+	}
+
+	@Test
+	void skipsExistingEmailsWithNumericSuffixes() {
+		when(studentRepository.findEmailsSharingBase(any()))
+				.thenReturn(List.of("juan.perez@estudiante.com", "juan.perez.1@estudiante.com"));
+		allocator.preload(Set.of("juan.perez"));
+
+		assertThat(allocator.allocate("juan.perez")).isEqualTo("juan.perez.2@estudiante.com");
+	}
+
+	@Test
+	void allocatesDistinctEmailsWithinTheSameUpload() {
+		when(studentRepository.findEmailsSharingBase(any())).thenReturn(List.of());
+		allocator.preload(Set.of("ana"));
+
+		assertThat(List.of(allocator.allocate("ana"), allocator.allocate("ana"), allocator.allocate("ana")))
+				.containsExactly("ana@estudiante.com", "ana.1@estudiante.com", "ana.2@estudiante.com");
+	}
+
+	@Test
+	void keepsSuffixedEmailsWithinMaximumLength() {
+		String base = "b".repeat(StudentEmailAllocator.MAX_LOCAL_LENGTH);
+		when(studentRepository.findEmailsSharingBase(any())).thenReturn(List.of(base + StudentEmailAllocator.DOMAIN));
+		allocator.preload(Set.of(base));
+
+		String email = allocator.allocate(base);
+
+		assertThat(email).endsWith(".1" + StudentEmailAllocator.DOMAIN);
+		assertThat(email.length() - StudentEmailAllocator.DOMAIN.length())
+				.isLessThanOrEqualTo(StudentEmailAllocator.MAX_LOCAL_LENGTH);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void queriesEachBaseOnlyOnce() {
+		when(studentRepository.findEmailsSharingBase(any())).thenReturn(List.of());
+
+		allocator.preload(Set.of("ana", "luis"));
+		allocator.preload(Set.of("ana"));
+		allocator.preload(Set.of("ana", "maria"));
+
+		verify(studentRepository, times(2)).findEmailsSharingBase(any(Collection.class));
+		verify(studentRepository, never()).findEmailsSharingBase(List.of("ana@estudiante.com"));
+	}
+}
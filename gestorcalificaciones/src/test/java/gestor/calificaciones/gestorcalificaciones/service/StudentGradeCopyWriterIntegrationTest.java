@@ -0,0 +1,116 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntBinaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "csv.import.grade-write-mode=copy")
+class StudentGradeCopyWriterIntegrationTest extends PostgresIntegrationTest {
+
+	private static final IntBinaryOperator ORIGINAL = (student, exercise) -> student == 3 ? -1 : 60 + student + exercise;
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private GradeStatisticsService gradeStatisticsService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Teacher teacher;
+	private String code;
+
+	@BeforeEach
+	void createTeacher() {
+		teacher = GradebookFixtures.createTeacher(teacherRepository);
+		code = GradebookFixtures.uniqueCode();
+	}
+
+	@Test
+	void insertsEveryCellOfANewCourse() {
+		CsvUploadResponse response = upload(4, ORIGINAL);
+
+		assertThat(response.getInsertedGrades()).isEqualTo(12);
+		assertThat(response.getUpdatedGrades()).isZero();
+		assertThat(response.getUnchangedGrades()).isZero();
+		assertThat(gradeRows(response)).isEqualTo(12);
+		assertStatisticsMatchRebuild(response);
+	}
+
+	@Test
+	void countsInsertedUpdatedAndUnchangedCellsOnReimport() {
+		upload(4, ORIGINAL);
+
+		// Dos puntajes cambian, una entrega pasa a "Not Submitted" y se agrega un estudiante
+		CsvUploadResponse response = upload(5, (student, exercise) -> {
+			if (student == 0 && exercise < 2) {
+				return 100;
+			}
+			if (student == 1 && exercise == 2) {
+				return -1;
+			}
+			return ORIGINAL.applyAsInt(student, exercise);
+		});
+
+		assertThat(response.getInsertedGrades()).isEqualTo(3);
+		assertThat(response.getUpdatedGrades()).isEqualTo(3);
+		assertThat(response.getUnchangedGrades()).isEqualTo(9);
+		assertThat(gradeRows(response)).isEqualTo(15);
+		assertThat(jdbcTemplate.queryForObject("SELECT score FROM student_grades sg JOIN users u ON u.id = sg.student_id "
+				+ "JOIN exercises e ON e.id = sg.exercise_id WHERE u.name = ? AND e.name = 'Ejercicio 1'",
+				Integer.class, code + " Estudiante 1")).isEqualTo(100);
+		assertStatisticsMatchRebuild(response);
+	}
+
+	private CsvUploadResponse upload(int students, IntBinaryOperator cell) {
+		return csvProcessingService.processCsvFile(
+				GradebookFixtures.file(GradebookFixtures.sheet(code, students, 3, cell)),
+				GradebookFixtures.request(code), teacher.getId());
+	}
+
+	private int gradeRows(CsvUploadResponse response) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_grades sg "
+				+ "JOIN exercises e ON e.id = sg.exercise_id WHERE e.course_id = ?",
+				Integer.class, UUID.fromString(response.getCourseId()));
+	}
+
+	// Las diferencias aplicadas por la carga deben dejar lo mismo que recalcular desde cero
+	private void assertStatisticsMatchRebuild(CsvUploadResponse response) {
+		UUID courseId = UUID.fromString(response.getCourseId());
+		List<List<Map<String, Object>>> maintained = statistics(courseId);
+
+		gradeStatisticsService.rebuildCourse(courseId);
+
+		assertThat(maintained).isEqualTo(statistics(courseId));
+	}
+
+	private List<List<Map<String, Object>>> statistics(UUID courseId) {
+		String counters = "correct_count, incorrect_count, pending_count, not_submitted_count, score_sum, score_count";
+		return List.of(
+				jdbcTemplate.queryForList("SELECT " + counters + " FROM course_grade_stats WHERE course_id = ?",
+						courseId),
+				jdbcTemplate.queryForList("SELECT exercise_id, " + counters
+						+ " FROM exercise_grade_stats WHERE course_id = ? ORDER BY exercise_id", courseId),
+				jdbcTemplate.queryForList("SELECT student_id, " + counters
+						+ " FROM student_course_grade_stats WHERE course_id = ? ORDER BY student_id", courseId),
+				jdbcTemplate.queryForList("SELECT exercise_id, score, grade_count FROM exercise_score_buckets "
+						+ "WHERE course_id = ? AND grade_count <> 0 ORDER BY exercise_id, score", courseId));
+	}
+}
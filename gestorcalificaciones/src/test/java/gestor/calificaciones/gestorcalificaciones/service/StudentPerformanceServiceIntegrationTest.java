@@ -0,0 +1,85 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformance;
+import gestor.calificaciones.gestorcalificaciones.DTO.Course.StudentPerformancePage;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.enums.StudentPerformanceSort;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentPerformanceServiceIntegrationTest extends PostgresIntegrationTest {
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private StudentPerformanceService studentPerformanceService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private UUID courseId;
+
+	@BeforeEach
+	void importSheet() {
+		String code = GradebookFixtures.uniqueCode();
+		// Promedios repetidos entre estudiantes para recorrer los empates del cursor
+		CsvUploadResponse response = csvProcessingService.processCsvFile("notas.csv",
+				GradebookFixtures.csv(GradebookFixtures.sheet(code, 7, 3,
+						(student, exercise) -> exercise == student % 3 ? -1 : 50 + 10 * (student % 4))),
+				GradebookFixtures.request(code), GradebookFixtures.createTeacher(teacherRepository).getId(),
+				CsvImportProgress.NONE);
+		courseId = UUID.fromString(response.getCourseId());
+	}
+
+	@Test
+	void pagesCoverEveryStudentOnceInOrder() {
+		List<StudentPerformance> paged = readAllPages(StudentPerformanceSort.AVERAGE, true, 2);
+
+		assertThat(paged).hasSize(7);
+		assertThat(paged).isSortedAccordingTo(
+				Comparator.comparingDouble(StudentPerformance::getAverageScore).reversed());
+		assertThat(paged).extracting(StudentPerformance::getStudentEmail).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void readsCourseWithoutStatisticsRowWithoutWriting() {
+		List<StudentPerformance> maintained = readAllPages(StudentPerformanceSort.NAME, false, 3);
+		jdbcTemplate.update("DELETE FROM course_grade_stats WHERE course_id = ?", courseId);
+		jdbcTemplate.update("DELETE FROM student_course_grade_stats WHERE course_id = ?", courseId);
+
+		List<StudentPerformance> grouped = readAllPages(StudentPerformanceSort.NAME, false, 3);
+
+		assertThat(grouped).usingRecursiveFieldByFieldElementComparator().isEqualTo(maintained);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course_grade_stats WHERE course_id = ?",
+				Integer.class, courseId)).isZero();
+	}
+
+	private List<StudentPerformance> readAllPages(StudentPerformanceSort sort, boolean descending, int pageSize) {
+		List<StudentPerformance> students = new ArrayList<>();
+		String cursor = null;
+		do {
+			StudentPerformancePage page = studentPerformanceService
+					.getPage(courseId, sort, descending, null, null, cursor, pageSize)
+					.orElseThrow();
+			assertThat(page.getStudents()).hasSizeLessThanOrEqualTo(pageSize);
+			students.addAll(page.getStudents());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return students;
+	}
+}
@@ -0,0 +1,57 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.enums.StudentPerformanceSort;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentPerformanceServiceTest {
+
+	@ParameterizedTest
+	@EnumSource(StudentPerformanceSort.class)
+	void roundTripsKeysForEverySortAndDirection(StudentPerformanceSort sort) {
+		List<String> keys = List.of("Pérez, Ana.María/+=", "", "42", UUID.randomUUID().toString());
+
+		for (boolean descending : new boolean[]{false, true}) {
+			String cursor = StudentPerformanceService.encodeCursor(sort, descending, keys);
+
+			assertThat(StudentPerformanceService.decodeCursor(cursor, sort, descending)).isEqualTo(keys);
+		}
+	}
+
+	@Test
+	void cursorIsUrlSafe() {
+		String cursor = StudentPerformanceService.encodeCursor(StudentPerformanceSort.NAME, false,
+				List.of("???>>>~~~ ñ", UUID.randomUUID().toString()));
+
+		assertThat(cursor).matches("[A-Za-z0-9_.-]+");
+	}
+
+	@Test
+	void rejectsCursorForAnotherSort() {
+		String cursor = StudentPerformanceService.encodeCursor(StudentPerformanceSort.NAME, false, List.of("Ana"));
+
+		assertThatThrownBy(() -> StudentPerformanceService.decodeCursor(cursor, StudentPerformanceSort.AVERAGE, false))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsCursorForAnotherDirection() {
+		String cursor = StudentPerformanceService.encodeCursor(StudentPerformanceSort.COMPLETION, true, List.of("3"));
+
+		assertThatThrownBy(() -> StudentPerformanceService.decodeCursor(cursor, StudentPerformanceSort.COMPLETION, false))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void rejectsMalformedBase64() {
+		assertThatThrownBy(() -> StudentPerformanceService.decodeCursor("name-asc.@@@", StudentPerformanceSort.NAME, false))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,84 @@
+package gestor.calificaciones.gestorcalificaciones.service;
+
+import gestor.calificaciones.gestorcalificaciones.DTO.CSV.CsvUploadResponse;
+import gestor.calificaciones.gestorcalificaciones.PostgresIntegrationTest;
+import gestor.calificaciones.gestorcalificaciones.entities.Teacher;
+import gestor.calificaciones.gestorcalificaciones.repository.TeacherRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mide la creación de cuentas de estudiantes con distintos tamaños de planilla.
+ * Cada planilla se importa dos veces en cursos distintos: la primera crea los
+ * estudiantes y la segunda los encuentra ya creados, así que la diferencia es
+ * el costo de crearlos. Como referencia se informa lo que costaría ejecutar
+ * BCrypt por cada cuenta. Se ejecuta con {@code mvn -Pbenchmark test}.
+ */
+class StudentProvisioningBenchmark extends PostgresIntegrationTest {
+
+	private static final int[] ROSTER_SIZES = {100, 1_000, 10_000};
+
+	@Autowired
+	private CsvProcessingService csvProcessingService;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void provisionRosters() {
+		Teacher teacher = GradebookFixtures.createTeacher(teacherRepository);
+		// Calentamiento: JIT, conexiones del pool y el hash de la contraseña por defecto
+		importTwice(teacher, 50);
+
+		long bcryptNanos = bcryptNanos();
+		System.out.printf("%-11s %10s %12s %14s %16s%n",
+				"estudiantes", "nuevos ms", "existentes ms", "creación ms", "BCrypt/fila ms");
+		for (int students : ROSTER_SIZES) {
+			long[] millis = importTwice(teacher, students);
+			System.out.printf("%-11d %10d %12d %14d %16d%n", students, millis[0], millis[1],
+					millis[0] - millis[1], students * bcryptNanos / 1_000_000);
+		}
+	}
+
+	private long[] importTwice(Teacher teacher, int students) {
+		String prefix = GradebookFixtures.uniqueCode();
+		MockMultipartFile sheet = GradebookFixtures.file(GradebookFixtures.sheet(prefix, students, 1,
+				(student, exercise) -> student % 101));
+
+		long newMillis = timed(() -> {
+			CsvUploadResponse response = upload(teacher, sheet);
+			assertThat(response.getTotalStudents()).isEqualTo(students);
+		});
+		long existingMillis = timed(() -> upload(teacher, sheet));
+		return new long[]{newMillis, existingMillis};
+	}
+
+	private CsvUploadResponse upload(Teacher teacher, MockMultipartFile sheet) {
+		return csvProcessingService.processCsvFile(sheet, GradebookFixtures.request(GradebookFixtures.uniqueCode()),
+				teacher.getId());
+	}
+
+	private long bcryptNanos() {
+		int rounds = 20;
+		long start = System.nanoTime();
+		for (int round = 0; round < rounds; round++) {
+			passwordEncoder.encode(UUID.randomUUID().toString());
+		}
+		return (System.nanoTime() - start) / rounds;
+	}
+
+	private static long timed(Runnable action) {
+		long start = System.nanoTime();
+		action.run();
+		return (System.nanoTime() - start) / 1_000_000;
+	}
+}